@@ -0,0 +1,60 @@
+package fiona.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import fiona.command.FionaException;
+import fiona.task.Deadline;
+import fiona.task.Event;
+import fiona.task.Task;
+import fiona.task.Todo;
+
+/**
+ * The {@code BenchmarkTasks} class generates the task lists used by the benchmarks.
+ * The lists are deterministic, so results from different runs are comparable.
+ */
+final class BenchmarkTasks {
+    /** The time the generated deadlines and events start from, far enough ahead to stay valid. */
+    static final LocalDateTime BASE = LocalDateTime.of(2035, 1, 1, 0, 0);
+
+    private static final String[] WORDS = {"read", "book", "report", "meeting", "gym", "groceries", "essay", "call"};
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Returns a list with equal numbers of todos, deadlines and events spread over the year after {@link #BASE}.
+     *
+     * @param count The number of tasks to generate.
+     * @return The generated tasks.
+     */
+    static List<Task> generate(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+                LocalDateTime time = BASE.plusMinutes((i * 7919L) % (365L * 24 * 60));
+                Task task;
+                switch (i % 3) {
+                case 0:
+                    task = new Todo(name);
+                    break;
+                case 1:
+                    task = new Deadline(name, time);
+                    break;
+                default:
+                    task = new Event(name, time, time.plusHours(2));
+                    break;
+                }
+                if (i % 4 == 0) {
+                    task.setDone();
+                }
+                tasks.add(task);
+            }
+        } catch (FionaException e) {
+            throw new IllegalStateException("Generated an invalid task: " + e.getMessage(), e);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,150 @@
+package fiona.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fiona.command.Fiona;
+import fiona.command.FionaException;
+import fiona.command.Storage;
+import fiona.command.TaskChange;
+import fiona.command.TaskList;
+import fiona.command.Ui;
+import fiona.task.Task;
+import fiona.task.Todo;
+
+/**
+ * The {@code CommandBenchmark} class measures {@code Fiona.processCommand} end to end for each action,
+ * from parsing the input to producing the reply. Saving is a no-op so the results exclude the disk.
+ * Commands that add tasks remove them again directly from the list to keep its size stable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+    @Param({"1000", "100000"})
+    private int taskCount;
+
+    private TaskList tasks;
+    private Fiona fiona;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        tasks = new TaskList(BenchmarkTasks.generate(taskCount));
+        fiona = new Fiona(new InMemoryStorage(), tasks, new Ui());
+    }
+
+    @Benchmark
+    public String todo() throws IOException, FionaException {
+        return runAndRemoveLast("todo read book");
+    }
+
+    @Benchmark
+    public String deadline() throws IOException, FionaException {
+        return runAndRemoveLast("deadline submit report /by 2035-01-31 2359");
+    }
+
+    @Benchmark
+    public String event() throws IOException, FionaException {
+        return runAndRemoveLast("event team meeting /from 2035-02-20 1400 /to 2035-02-20 1500");
+    }
+
+    @Benchmark
+    public String markAndUnmark() throws IOException, FionaException {
+        fiona.processCommand("mark " + (taskCount / 2));
+        fiona.processCommand("unmark " + (taskCount / 2));
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String deleteByIndex() throws IOException, FionaException {
+        tasks.add(new Todo("temporary"));
+        fiona.processCommand("delete " + tasks.size());
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String deleteById() throws IOException, FionaException {
+        Task task = new Todo("temporary");
+        tasks.add(task);
+        fiona.processCommand("delete #" + task.getId());
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String bulkMarkAndUnmark() throws IOException, FionaException {
+        fiona.processCommand("mark 1-500");
+        fiona.processCommand("unmark 1-500");
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String bulkDeleteAndUndo() throws IOException, FionaException {
+        fiona.processCommand("delete 1-500");
+        fiona.processCommand("undo");
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String list() throws IOException, FionaException {
+        fiona.processCommand("list");
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String findByDate() throws IOException, FionaException {
+        fiona.processCommand("find 2035-03-15");
+        return fiona.getWelcomeMessage();
+    }
+
+    @Benchmark
+    public String findByKeyword() throws IOException, FionaException {
+        fiona.processCommand("find meeting gym");
+        return fiona.getWelcomeMessage();
+    }
+
+    private String runAndRemoveLast(String input) throws IOException, FionaException {
+        fiona.processCommand(input);
+        tasks.delete(tasks.size() - 1);
+        return fiona.getWelcomeMessage();
+    }
+
+    /**
+     * A storage that keeps nothing, so that benchmarks measure command handling only.
+     */
+    private static final class InMemoryStorage extends Storage {
+        InMemoryStorage() {
+            super("unused");
+        }
+
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void save(List<Task> tasks) {
+        }
+
+        @Override
+        public void saveChange(TaskList tasks, TaskChange change) {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package fiona.benchmark;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+
+/**
+ * The {@code DialogBoxBenchmark} class measures the cost of building the dialog box for one message: parsing
+ * the FXML template for every message as the GUI used to, creating a dialog box in code, and refilling a dialog
+ * box that a chat history cell reuses.
+ *
+ * <p>The GUI classes live in the default package, which cannot be imported, so they are called through method
+ * handles. The JavaFX toolkit is started once so that the shared pictures can be decoded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogBoxBenchmark {
+    private static final String REPLY = "Got it. I've added this task:\n[T][ ] read book (#42)\n"
+            + "Now you have 7 task(s) in the list.";
+
+    private MethodHandle newDukeDialog;
+    private MethodHandle setMessage;
+    private Object reply;
+    private Object reusedDialog;
+
+    @Setup
+    public void setUp() throws Throwable {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // The toolkit was already started by an earlier trial.
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> dialogBox = Class.forName("DialogBox");
+        Class<?> chatMessage = Class.forName("ChatMessage");
+        newDukeDialog = lookup.findStatic(dialogBox, "getDukeDialog", MethodType.methodType(dialogBox, String.class))
+                .asType(MethodType.methodType(Object.class, String.class));
+        setMessage = lookup.findVirtual(dialogBox, "setMessage", MethodType.methodType(void.class, chatMessage))
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        reply = lookup.findStatic(chatMessage, "fromDuke", MethodType.methodType(chatMessage, String.class))
+                .invoke(REPLY);
+        reusedDialog = newDukeDialog.invoke("");
+    }
+
+    @Benchmark
+    public Object createFromFxml() throws IOException {
+        FXMLLoader loader = new FXMLLoader(DialogBoxBenchmark.class.getResource("/benchmark/LegacyDialogBox.fxml"));
+        HBox dialogBox = loader.load();
+        ((Label) loader.getNamespace().get("dialog")).setText(REPLY);
+        List<Node> children = new ArrayList<>(dialogBox.getChildren());
+        Collections.reverse(children);
+        dialogBox.getChildren().setAll(children);
+        dialogBox.setAlignment(Pos.TOP_LEFT);
+        return dialogBox;
+    }
+
+    @Benchmark
+    public Object create() throws Throwable {
+        return newDukeDialog.invoke(REPLY);
+    }
+
+    @Benchmark
+    public Object reuse() throws Throwable {
+        setMessage.invoke(reusedDialog, reply);
+        return reusedDialog;
+    }
+}
@@ -0,0 +1,73 @@
+package fiona.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fiona.command.TaskList;
+import fiona.task.Task;
+
+/**
+ * The {@code FindBenchmark} class measures the date and keyword queries of {@code TaskList}
+ * once their indexes have been built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    private TaskList tasks;
+    private LocalDateTime dayStart;
+    private LocalDateTime dayEnd;
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(BenchmarkTasks.generate(taskCount));
+        dayStart = BenchmarkTasks.BASE.plusDays(73);
+        dayEnd = dayStart.plusHours(23).plusMinutes(59);
+        tasks.findByDate(dayStart, dayEnd);
+        tasks.findByKeyword("meeting");
+    }
+
+    @Benchmark
+    public List<Task> findByDay() {
+        return tasks.findByDate(dayStart, dayEnd);
+    }
+
+    @Benchmark
+    public List<Task> findByDateTime() {
+        return tasks.findByDate(dayStart.plusHours(12), dayStart.plusHours(12));
+    }
+
+    @Benchmark
+    public List<Task> findByKeyword() {
+        return tasks.findByKeyword("meeting gym");
+    }
+
+    @Benchmark
+    public List<Task> findByUnmatchedKeyword() {
+        return tasks.findByKeyword("report essay 12345");
+    }
+
+    @Benchmark
+    public List<Task> findByShortKeyword() {
+        return tasks.findByKeyword("gy");
+    }
+}
@@ -0,0 +1,67 @@
+package fiona.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import fiona.command.Action;
+
+/**
+ * The {@code LegacyParser} class is a copy of the parser that split the input with regular expressions,
+ * together with the argument handling that used to follow it in {@code Fiona}. It is kept only as the
+ * baseline that {@code ParserBenchmark} compares the current parser against.
+ */
+final class LegacyParser {
+    private LegacyParser() {
+    }
+
+    /**
+     * Parses the input the way it was parsed before the single-pass parser, including splitting the
+     * arguments and parsing the date-times, and returns the parsed arguments.
+     */
+    static Object parse(String fullCommand) {
+        String[] inputs = fullCommand.trim().split("\\s+", 2);
+        Action action = fromString(inputs[0]);
+        String args = "";
+        if (inputs.length > 1) {
+            args = inputs[1].trim();
+        }
+
+        if (action == Action.FIND) {
+            if (!args.matches("\\d{4}-\\d{2}-\\d{2}") && !args.matches("\\d{4}-\\d{2}-\\d{2}\\s+\\d{4}")) {
+                action = Action.FIND_KEYWORD;
+            }
+        }
+
+        switch (action) {
+        case DEADLINE:
+            String[] parts = args.split("/by", 2);
+            return LocalDateTime.parse(parts[1].trim(), DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        case EVENT:
+            String[] fromSplit = args.split("/from", 2);
+            String[] toSplit = fromSplit[1].split("/to", 2);
+            LocalDateTime from = LocalDateTime.parse(toSplit[0].trim(), DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+            LocalDateTime to = LocalDateTime.parse(toSplit[1].trim(), DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+            return from.isAfter(to) ? from : to;
+        case MARK:
+        case UNMARK:
+        case DELETE:
+            return args.startsWith("#") ? Integer.parseInt(args.substring(1).trim()) : Integer.parseInt(args) - 1;
+        case FIND:
+            if (args.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                return LocalDate.parse(args, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+            }
+            return LocalDateTime.parse(args, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        default:
+            return args;
+        }
+    }
+
+    private static Action fromString(String action) {
+        try {
+            return Action.valueOf(action.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Action.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fiona.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fiona.command.Command;
+import fiona.command.FionaException;
+import fiona.command.Parser;
+
+/**
+ * The {@code ParserBenchmark} class measures the throughput of parsing each kind of command, compared with
+ * the regular-expression based parser it replaced. Run with {@code -prof gc} to compare allocation rates too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({
+        "todo read book",
+        "deadline submit report /by 2035-01-31 2359",
+        "event team meeting /from 2035-02-20 1400 /to 2035-02-20 1500",
+        "mark 12",
+        "delete #42",
+        "list",
+        "find 2035-01-31",
+        "find 2035-01-31 1800",
+        "find book"
+    })
+    private String input;
+
+    @Benchmark
+    public Command parse() throws FionaException {
+        return Parser.parse(input);
+    }
+
+    @Benchmark
+    public Object parseLegacy() {
+        return LegacyParser.parse(input);
+    }
+}
@@ -0,0 +1,120 @@
+package fiona.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fiona.command.Storage;
+import fiona.command.SyncPolicy;
+
+/**
+ * The {@code StartupBenchmark} class measures the time from starting the command line version of Fiona in a new
+ * JVM until it shows its first prompt, with and without a class data sharing archive made by a training run.
+ * Shutting the JVM down is not measured.
+ *
+ * <p>Class data sharing only accepts classes from jars, so Fiona is started from the shadow jar, which is
+ * {@code build/libs/fiona.jar} unless the {@code fiona.jar} system property names another one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private static final String PROMPT = "What can I do for you?";
+
+    @Param({"0", "100000"})
+    private int taskCount;
+
+    @Param({"false", "true"})
+    private boolean isUsingArchive;
+
+    private Path directory;
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("fiona-startup");
+        Files.createDirectories(directory.resolve("data"));
+        Storage storage = new Storage(directory.resolve("data/fiona.txt").toString(), SyncPolicy.NEVER);
+        storage.save(BenchmarkTasks.generate(taskCount));
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = Paths.get(System.getProperty("fiona.jar", "build/libs/fiona.jar")).toAbsolutePath().toString();
+        if (isUsingArchive) {
+            String archive = directory.resolve("fiona.jsa").toString();
+            List<String> training = List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", jar,
+                    "fiona.command.Fiona", "--batch");
+            Process trainingRun = new ProcessBuilder(training).directory(directory.toFile())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try (OutputStream input = trainingRun.getOutputStream()) {
+                input.write("list\nfind book\nstats\nbye\n".getBytes(StandardCharsets.UTF_8));
+            }
+            if (trainingRun.waitFor() != 0) {
+                throw new IllegalStateException("The training run failed to create " + archive);
+            }
+            command = List.of(java, "-XX:SharedArchiveFile=" + archive, "-cp", jar, "fiona.command.Fiona");
+        } else {
+            command = List.of(java, "-cp", jar, "fiona.command.Fiona");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopProcess() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+            process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String timeToFirstPrompt() throws IOException {
+        process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.contains(PROMPT)) {
+                return line;
+            }
+        }
+        throw new IllegalStateException("Fiona exited before showing the prompt");
+    }
+}
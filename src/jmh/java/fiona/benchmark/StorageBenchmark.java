@@ -0,0 +1,85 @@
+package fiona.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fiona.command.Storage;
+import fiona.command.StorageFormat;
+import fiona.command.SyncPolicy;
+import fiona.task.Task;
+
+/**
+ * The {@code StorageBenchmark} class measures loading and saving task files of different sizes and formats.
+ * Files are not forced to disk, so the results measure encoding and decoding rather than the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    @Param({"TEXT", "BINARY"})
+    private StorageFormat format;
+
+    @Param({"false", "true"})
+    private boolean isParallelLoading;
+
+    private Path directory;
+    private List<Task> tasks;
+    private Storage loadStorage;
+    private Storage saveStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fiona-benchmark");
+        tasks = BenchmarkTasks.generate(taskCount);
+
+        loadStorage = new Storage(directory.resolve("load.txt").toString(), SyncPolicy.NEVER);
+        loadStorage.setFormat(format);
+        loadStorage.save(tasks);
+        loadStorage.setParallelLoading(isParallelLoading);
+
+        saveStorage = new Storage(directory.resolve("save.txt").toString(), SyncPolicy.NEVER);
+        saveStorage.setFormat(format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Task> load() throws IOException {
+        return loadStorage.load();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        saveStorage.save(tasks);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Represents one message in the chat history, either the user's input or Duke's reply.
+ */
+public class ChatMessage {
+    private final String text;
+    private final boolean isFromUser;
+
+    private ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    public static ChatMessage fromUser(String text) {
+        return new ChatMessage(text, true);
+    }
+
+    public static ChatMessage fromDuke(String text) {
+        return new ChatMessage(text, false);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+}
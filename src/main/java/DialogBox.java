@@ -1,57 +1,81 @@
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
- * and a label containing text from the speaker.
+ * and a label containing text from the speaker. A dialog box can be reused to show another message.
+ *
+ * <p>Dialog boxes are built in code rather than loaded from FXML, and all of them share the same
+ * decoded pictures, so creating one costs no parsing or image decoding.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-
-    private DialogBox(String text) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final Image USER_IMAGE = new Image(DialogBox.class.getResourceAsStream("/images/DaUser.png"));
+    private static final Image DUKE_IMAGE = new Image(DialogBox.class.getResourceAsStream("/images/DaDuke.png"));
+
+    /** The width and height the pictures are shown at. */
+    private static final double PICTURE_SIZE = 60.0;
 
-        dialog.setText(text);
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private boolean isFromUser;
+
+    /**
+     * Creates an empty dialog box, to be filled in with {@link #setMessage(ChatMessage)}.
+     */
+    public DialogBox() {
+        getStylesheets().add(STYLESHEET);
+        setPrefWidth(400.0);
+        setMaxWidth(Double.MAX_VALUE);
+        setMaxHeight(Double.MAX_VALUE);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Shows the given message, with the user's picture on the right or Duke's picture on the left.
+     *
+     * @param message The message to show.
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("reply-label");
+    public void setMessage(ChatMessage message) {
+        dialog.setText(message.getText());
+        if (!getChildren().isEmpty() && isFromUser == message.isFromUser()) {
+            return;
+        }
+
+        isFromUser = message.isFromUser();
+        if (isFromUser) {
+            displayPicture.setImage(USER_IMAGE);
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+            dialog.getStyleClass().remove("reply-label");
+        } else {
+            displayPicture.setImage(DUKE_IMAGE);
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add("reply-label");
+        }
     }
 
     public static DialogBox getUserDialog(String text) {
-        return new DialogBox(text);
+        var db = new DialogBox();
+        db.setMessage(ChatMessage.fromUser(text));
+        return db;
     }
 
     public static DialogBox getDukeDialog(String text) {
-        var db = new DialogBox(text);
-        db.flip();
+        var db = new DialogBox();
+        db.setMessage(ChatMessage.fromDuke(text));
         return db;
     }
 }
@@ -1,10 +1,22 @@
+import fiona.command.Fiona;
 import javafx.application.Application;
 
 /**
  * A launcher class to workaround classpath issues.
+ * Running it with {@code --batch} runs a command file, and with {@code --server} serves clients over a socket,
+ * without starting the GUI.
  */
 public class Launcher {
     public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--batch") || args[0].equals("--server"))) {
+            Fiona.main(args);
+            return;
+        }
+        launchGui(args);
+    }
+
+    // Kept out of main so that JavaFX is only loaded when the GUI is started.
+    private static void launchGui(String[] args) {
         Application.launch(Main.class, args);
     }
 }
@@ -9,10 +9,12 @@ import javafx.stage.Stage;
 
 /**
  * A GUI for Duke using FXML.
+ * The window is shown first, and the tasks are loaded in the background while it appears.
  */
 public class Main extends Application {
+    private static final String FILE_PATH = "./data/fiona.txt";
 
-    private Fiona fiona = new Fiona("./data/fiona.txt");
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -21,11 +23,22 @@ public class Main extends Application {
             AnchorPane ap = fxmlLoader.load();
             Scene scene = new Scene(ap);
             stage.setScene(scene);
-            // inject the Duke instance
-            fxmlLoader.<MainWindow>getController().setDuke(fiona);
             stage.show();
+            // create the Duke instance in the background and inject it
+            mainWindow = fxmlLoader.getController();
+            mainWindow.startDuke(() -> new Fiona(FILE_PATH));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Waits for the changes still being saved in the background when the window is closed.
+     */
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.awaitSaved();
+        }
+    }
 }
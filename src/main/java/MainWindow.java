@@ -1,29 +1,80 @@
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
 import fiona.command.Fiona;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 /**
  * Controller for the main GUI.
+ * The chat history is shown in a {@code ListView}, which only creates dialog boxes for the visible messages,
+ * and only the latest {@value #MAX_MESSAGES} messages are kept.
  */
 public class MainWindow extends AnchorPane {
+    /** The number of messages kept in the chat history. */
+    private static final int MAX_MESSAGES = 1000;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> chatHistory;
     @FXML
     private TextField userInput;
+    @FXML
+    private ProgressIndicator busyIndicator;
+
+    /** Runs the commands one at a time in the order they were sent, off the JavaFX application thread. */
+    private final ExecutorService commandRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fiona-gui-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+
+    /** The number of commands that have been sent but not answered yet. */
+    private int pendingCommands;
 
-    private Fiona fiona;
+    /** The Duke instance, or {@code null} until it has been created by the command thread. */
+    private volatile Fiona fiona;
 
-    /** Injects the Duke instance and displays welcome message. */
-    public void setDuke(Fiona f) {
-        fiona = f;
-        String welcomeMessage = fiona.getWelcomeMessage();
-        dialogContainer.getChildren().addAll(
-                DialogBox.getDukeDialog(welcomeMessage)
-        );
+    /**
+     * Creates the Duke instance in the background and displays its welcome message once it is ready.
+     * Commands sent in the meantime run as soon as it has been created.
+     *
+     * @param factory Creates the Duke instance, loading its tasks.
+     */
+    public void startDuke(Supplier<Fiona> factory) {
+        setPendingCommands(pendingCommands + 1);
+        commandRunner.execute(() -> {
+            fiona = factory.get();
+            String welcomeMessage = fiona.getWelcomeMessage();
+            Platform.runLater(() -> {
+                addMessage(ChatMessage.fromDuke(welcomeMessage));
+                setPendingCommands(pendingCommands - 1);
+            });
+        });
+    }
+
+    /**
+     * Waits for the changes still being saved in the background, if the Duke instance has been created.
+     */
+    public void awaitSaved() {
+        Fiona current = fiona;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.flush().join();
+        } catch (CompletionException e) {
+            System.err.println("Error saving tasks: " + e.getCause().getMessage());
+        }
     }
 
     /**
@@ -31,21 +82,80 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        chatHistory.setItems(messages);
+        chatHistory.setCellFactory(listView -> new MessageCell());
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Shows the user's input and runs it in the background, so that saving and large replies do not freeze
+     * the window. Duke's reply is appended once it is ready, and replies always appear in the order the
+     * commands were sent. Clears the user input right away so that the next command can be typed.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = fiona.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input),
-                DialogBox.getDukeDialog(response)
-        );
+        addMessage(ChatMessage.fromUser(input));
         userInput.clear();
+        setPendingCommands(pendingCommands + 1);
+        commandRunner.execute(() -> {
+            String response;
+            try {
+                response = fiona.getResponse(input);
+            } catch (RuntimeException e) {
+                response = "Something went wrong: " + e.getMessage();
+            }
+            String reply = response;
+            boolean isFinished = fiona.isFinished();
+            Platform.runLater(() -> {
+                addMessage(ChatMessage.fromDuke(reply));
+                setPendingCommands(pendingCommands - 1);
+                if (isFinished) {
+                    Platform.exit();
+                }
+            });
+        });
+    }
+
+    /**
+     * Appends a message to the chat history, dropping the oldest ones beyond {@value #MAX_MESSAGES},
+     * and scrolls to it.
+     */
+    private void addMessage(ChatMessage message) {
+        messages.add(message);
+        if (messages.size() > MAX_MESSAGES) {
+            messages.remove(0, messages.size() - MAX_MESSAGES);
+        }
+        chatHistory.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Shows the busy indicator while any command is still running. Only called on the JavaFX application thread.
+     */
+    private void setPendingCommands(int count) {
+        pendingCommands = count;
+        busyIndicator.setVisible(count > 0);
+    }
+
+    /**
+     * A cell of the chat history, which reuses one dialog box for whichever message it currently shows.
+     */
+    private static class MessageCell extends ListCell<ChatMessage> {
+        private final DialogBox dialogBox = new DialogBox();
+
+        MessageCell() {
+            // Lets long messages wrap to the width of the list instead of widening it.
+            setPrefWidth(0);
+        }
+
+        @Override
+        protected void updateItem(ChatMessage message, boolean isEmpty) {
+            super.updateItem(message, isEmpty);
+            if (isEmpty || message == null) {
+                setGraphic(null);
+            } else {
+                dialogBox.setMessage(message);
+                setGraphic(dialogBox);
+            }
+        }
     }
 }
@@ -35,22 +35,78 @@ public enum Action {
     /** Represents the action to find tasks based on keyword(s). */
     FIND_KEYWORD,
 
+    /** Represents the action to show command metrics. */
+    STATS,
+
+    /** Represents the action to undo the most recent change to the task list. */
+    UNDO,
+
+    /** Represents the action to redo the change that was undone last. */
+    REDO,
+
     /** Represents an unknown or invalid action. */
     UNKNOWN;
 
+    /** The actions in declaration order, cached because {@code values()} copies the array on every call. */
+    private static final Action[] VALUES = values();
+
     /**
-     * Converts a string into an {@code Action} enum value.
+     * Converts a string into an {@code Action} enum value, ignoring case.
      * If the provided string does not match any known action, {@code UNKNOWN} is returned.
      *
      * @param action The string representation of an action.
      * @return The corresponding {@code Action} enum value, or {@code UNKNOWN} if invalid.
      */
     public static Action fromString(String action) {
-        try {
-            return Action.valueOf(action.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            return UNKNOWN;
+        return fromString(action, 0, action.length());
+    }
+
+    /**
+     * Converts part of a string into an {@code Action} enum value, ignoring case, without creating
+     * any intermediate strings.
+     * If the given part does not match any action that can be typed, {@code UNKNOWN} is returned, so the
+     * internal {@code FIND_KEYWORD} and {@code UNKNOWN} names are not recognised.
+     *
+     * @param input The string containing the action.
+     * @param start The index of the first character of the action.
+     * @param end The index after the last character of the action.
+     * @return The corresponding {@code Action} enum value, or {@code UNKNOWN} if invalid.
+     */
+    public static Action fromString(String input, int start, int end) {
+        int length = end - start;
+        for (Action action : VALUES) {
+            String name = action.name();
+            if (action.isTyped() && name.length() == length
+                    && input.regionMatches(true, start, name, 0, length)) {
+                return action;
+            }
         }
+        return UNKNOWN;
+    }
+
+    private boolean isTyped() {
+        return this != FIND_KEYWORD && this != UNKNOWN;
     }
-}
 
+    /**
+     * Returns whether running this action changes the task list.
+     *
+     * @return {@code true} for actions that add, mark, unmark or delete tasks, or undo or redo such a change,
+     *     {@code false} otherwise.
+     */
+    public boolean changesTasks() {
+        switch (this) {
+        case TODO:
+        case DEADLINE:
+        case EVENT:
+        case MARK:
+        case UNMARK:
+        case DELETE:
+        case UNDO:
+        case REDO:
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package fiona.command;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fiona.task.Deadline;
+import fiona.task.Event;
+import fiona.task.Task;
+import fiona.task.Todo;
+
+/**
+ * The {@code BinaryTaskFormat} class reads and writes tasks in the compact binary file format.
+ *
+ * <p>A file starts with a header made of the magic number, the format version, the number of tasks and
+ * the largest task ID given out so far. Each task is then stored as a type tag byte, a done flag byte,
+ * its ID, the length-prefixed UTF-8 name and, for deadlines and events, their date-times as minutes
+ * since the epoch.
+ *
+ * <p>The records are followed by an index: the offset of every record, then the number of deadlines and
+ * events and their record numbers in order of their end time, and finally the offset of the index and the
+ * magic number again. The index lets a mapped file find any record and its overdue tasks without reading
+ * the records in between. Version 1 files, which have no IDs, and version 2 files, which have no index,
+ * can still be read.
+ */
+final class BinaryTaskFormat {
+    /** The magic number "FION" that starts every binary task file. */
+    static final int MAGIC = 0x46494F4E;
+
+    /** The version of the format written by this class. */
+    static final short VERSION = 3;
+
+    /** The version of the format that stores task IDs but no record index. */
+    static final short VERSION_WITHOUT_INDEX = 2;
+
+    /** The first version of the format, which stores neither task IDs nor the largest ID. */
+    static final short VERSION_WITHOUT_IDS = 1;
+
+    /** The size of the header in bytes. */
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /** The offset of the largest task ID within the header. */
+    static final int LAST_ID_OFFSET = Integer.BYTES + Short.BYTES + Integer.BYTES;
+
+    /** The size in bytes of the trailer holding the offset of the index and the magic number. */
+    static final int TRAILER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    static final byte TODO_TAG = 'T';
+    static final byte DEADLINE_TAG = 'D';
+    static final byte EVENT_TAG = 'E';
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Returns whether the given leading bytes of a file start with the binary format's magic number.
+     *
+     * @param head The first bytes of a file.
+     * @param length The number of valid bytes in {@code head}.
+     * @return {@code true} if the file is in the binary format, {@code false} otherwise.
+     */
+    static boolean hasMagic(byte[] head, int length) {
+        if (length < Integer.BYTES) {
+            return false;
+        }
+        int magic = (head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | (head[3] & 0xFF);
+        return magic == MAGIC;
+    }
+
+    /**
+     * Writes the header, every task and the record index to the given stream.
+     * The stream must not have been written to yet, as the index stores offsets counted by the stream.
+     *
+     * @param tasks The tasks to write.
+     * @param out The stream to write to.
+     * @throws IOException If an error occurs while writing.
+     */
+    static void write(List<Task> tasks, DataOutputStream out) throws IOException {
+        writeHeader(tasks.size(), out);
+        RecordIndex index = new RecordIndex(tasks.size());
+        for (Task task : tasks) {
+            index.add(out.size(), task);
+            writeTask(task, out);
+        }
+        index.writeTo(out);
+    }
+
+    /**
+     * Writes the header for a file of the given number of tasks to the given stream.
+     *
+     * @param count The number of tasks that follow the header.
+     * @param out The stream to write to.
+     * @throws IOException If an error occurs while writing.
+     */
+    static void writeHeader(int count, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(count);
+        out.writeInt(Task.getLastId());
+    }
+
+    /**
+     * Writes a single task record to the given stream.
+     *
+     * @param task The task to write.
+     * @param out The stream to write to.
+     * @throws IOException If an error occurs while writing.
+     */
+    static void writeTask(Task task, DataOutputStream out) throws IOException {
+        if (task instanceof Deadline) {
+            out.writeByte(DEADLINE_TAG);
+        } else if (task instanceof Event) {
+            out.writeByte(EVENT_TAG);
+        } else {
+            out.writeByte(TODO_TAG);
+        }
+        out.writeBoolean(task.getIsDone());
+        out.writeInt(task.getId());
+        byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(name.length);
+        out.write(name);
+
+        if (task instanceof Deadline) {
+            out.writeLong(((Deadline) task).getDeadlineEpochMinute());
+        } else if (task instanceof Event) {
+            out.writeLong(((Event) task).getFromEpochMinute());
+            out.writeLong(((Event) task).getToEpochMinute());
+        }
+    }
+
+    /**
+     * Reads the header and every task from the given stream, ignoring the record index.
+     * Overdue deadlines and events are restored as they are, to be purged by the task list.
+     *
+     * @param in The stream to read from.
+     * @return The tasks read from the stream.
+     * @throws IOException If an error occurs while reading, or the data is not a supported binary task file.
+     */
+    static List<Task> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary task file");
+        }
+        short version = in.readShort();
+        if (version != VERSION && version != VERSION_WITHOUT_INDEX && version != VERSION_WITHOUT_IDS) {
+            throw new IOException("Unsupported binary task file version: " + version);
+        }
+        boolean hasIds = version != VERSION_WITHOUT_IDS;
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt binary task file: negative task count");
+        }
+        if (hasIds) {
+            Task.reserveIds(in.readInt());
+        }
+
+        List<Task> tasks = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, hasIds));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Corrupt binary task file: expected " + count + " tasks", e);
+        }
+        return tasks;
+    }
+
+    private static Task readTask(DataInputStream in, boolean hasIds) throws IOException {
+        byte type = in.readByte();
+        boolean isDone = in.readBoolean();
+        int id = hasIds ? in.readInt() : 0;
+        int nameLength = in.readInt();
+        if (nameLength < 0) {
+            throw new IOException("Corrupt binary task file: negative name length");
+        }
+        byte[] nameBytes = new byte[nameLength];
+        in.readFully(nameBytes);
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+        switch (type) {
+        case TODO_TAG:
+            Task todo = new Todo(name, id);
+            if (isDone) {
+                todo.setDone();
+            }
+            return todo;
+        case DEADLINE_TAG:
+            return Deadline.restore(name, Task.fromEpochMinute(in.readLong()), isDone, id);
+        case EVENT_TAG:
+            LocalDateTime from = Task.fromEpochMinute(in.readLong());
+            LocalDateTime to = Task.fromEpochMinute(in.readLong());
+            return Event.restore(name, from, to, isDone, id);
+        default:
+            throw new IOException("Corrupt binary task file: unknown task type " + type);
+        }
+    }
+
+    /**
+     * Collects the offset and end time of each record while a file is written, and writes them as the
+     * record index after the last record.
+     */
+    static final class RecordIndex {
+        /** The range of end minutes kept apart in the expiry order; later or earlier ends are clamped. */
+        private static final long END_MINUTE_LIMIT = 1L << 32;
+
+        private final int[] offsets;
+        private long[] expiryKeys = new long[16];
+        private int count;
+        private int expiryCount;
+
+        /**
+         * Constructs a {@code RecordIndex} for the given number of records.
+         *
+         * @param recordCount The number of records that will be added.
+         */
+        RecordIndex(int recordCount) {
+            offsets = new int[recordCount];
+        }
+
+        /**
+         * Adds the next record, which holds the given task.
+         *
+         * @param offset The offset of the record within the file.
+         * @param task The task stored in the record.
+         */
+        void add(int offset, Task task) {
+            if (task instanceof Deadline) {
+                add(offset, true, ((Deadline) task).getDeadlineEpochMinute());
+            } else if (task instanceof Event) {
+                add(offset, true, ((Event) task).getToEpochMinute());
+            } else {
+                add(offset, false, 0);
+            }
+        }
+
+        /**
+         * Adds the next record.
+         *
+         * @param offset The offset of the record within the file.
+         * @param hasEnd Whether the record is a deadline or an event.
+         * @param endMinute The minute since the epoch at which the deadline or event ends, if it has one.
+         */
+        void add(int offset, boolean hasEnd, long endMinute) {
+            int record = count;
+            offsets[count++] = offset;
+            if (!hasEnd) {
+                return;
+            }
+            if (expiryCount == expiryKeys.length) {
+                expiryKeys = Arrays.copyOf(expiryKeys, expiryCount * 2);
+            }
+            // Clamping keeps the order of overdue and upcoming tasks, since no clock is 8000 years off.
+            long end = Math.max(-END_MINUTE_LIMIT, Math.min(END_MINUTE_LIMIT - 1, endMinute));
+            expiryKeys[expiryCount++] = (end << (Integer.SIZE - 1)) | record;
+        }
+
+        /**
+         * Writes the index and the trailer to the given stream, which must follow the last record.
+         *
+         * @param out The stream to write to.
+         * @throws IOException If an error occurs while writing.
+         */
+        void writeTo(DataOutputStream out) throws IOException {
+            if (count != offsets.length) {
+                throw new IllegalStateException("Expected " + offsets.length + " records but got " + count);
+            }
+            int indexOffset = out.size();
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            Arrays.sort(expiryKeys, 0, expiryCount);
+            out.writeInt(expiryCount);
+            for (int i = 0; i < expiryCount; i++) {
+                out.writeInt((int) (expiryKeys[i] & Integer.MAX_VALUE));
+            }
+            out.writeInt(indexOffset);
+            out.writeInt(MAGIC);
+        }
+    }
+}
@@ -1,15 +1,48 @@
 package fiona.command;
 
+import java.time.LocalDateTime;
+
 /**
  * The {@code Command} class represents a user command in the Fiona chatbot.
- * It encapsulates an {@code Action} and any associated arguments.
+ * It encapsulates an {@code Action}, its raw arguments and, for the actions that take them,
+ * the arguments already parsed and validated by the {@code Parser}.
  */
 public class Command {
+    /** The limit of a {@code list} or {@code find} command that shows every matching task. */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
     /** The action associated with the command. */
-    private Action action;
+    private final Action action;
 
     /** The arguments provided with the command. */
-    private String args;
+    private final String args;
+
+    /** The description of the task to add, or {@code null} for other actions. */
+    private final String description;
+
+    /** The due date of a deadline, or {@code null} for other actions. */
+    private final LocalDateTime by;
+
+    /** The start of an event, or of the range to find, or {@code null} for other actions. */
+    private final LocalDateTime from;
+
+    /** The end of an event, or of the range to find, or {@code null} for other actions. */
+    private final LocalDateTime to;
+
+    /** The 1-based task number or the task ID the command refers to, or 0 for other actions. */
+    private final int taskNumber;
+
+    /** Whether {@code taskNumber} is a task ID given as {@code #id} rather than a position in the list. */
+    private final boolean isIdReference;
+
+    /** The number of matching tasks to skip before the first one shown by a {@code list} or {@code find}. */
+    private final int offset;
+
+    /** The maximum number of matching tasks shown by a {@code list} or {@code find}. */
+    private final int limit;
+
+    /** The tasks a bulk mark, unmark or delete applies to, or {@code null} for other commands. */
+    private final TaskSelector selector;
 
     /**
      * Constructs a {@code Command} object with the specified action and arguments.
@@ -18,8 +51,122 @@ public class Command {
      * @param args The arguments associated with the action, if any.
      */
     public Command(Action action, String args) {
+        this(action, args, null, null, null, null, 0, false, 0, NO_LIMIT, null);
+    }
+
+    private Command(Action action, String args, String description, LocalDateTime by, LocalDateTime from,
+            LocalDateTime to, int taskNumber, boolean isIdReference, int offset, int limit, TaskSelector selector) {
         this.action = action;
         this.args = args;
+        this.description = description;
+        this.by = by;
+        this.from = from;
+        this.to = to;
+        this.taskNumber = taskNumber;
+        this.isIdReference = isIdReference;
+        this.offset = offset;
+        this.limit = limit;
+        this.selector = selector;
+    }
+
+    /**
+     * Creates a command that adds a todo.
+     *
+     * @param args The arguments of the command.
+     * @param description The description of the todo.
+     * @return The corresponding {@code Command}.
+     */
+    static Command todo(String args, String description) {
+        return new Command(Action.TODO, args, description, null, null, null, 0, false, 0, NO_LIMIT, null);
+    }
+
+    /**
+     * Creates a command that adds a deadline.
+     *
+     * @param args The arguments of the command.
+     * @param description The description of the deadline.
+     * @param by The due date of the deadline.
+     * @return The corresponding {@code Command}.
+     */
+    static Command deadline(String args, String description, LocalDateTime by) {
+        return new Command(Action.DEADLINE, args, description, by, null, null, 0, false, 0, NO_LIMIT, null);
+    }
+
+    /**
+     * Creates a command that adds an event.
+     *
+     * @param args The arguments of the command.
+     * @param description The description of the event.
+     * @param from The start of the event.
+     * @param to The end of the event.
+     * @return The corresponding {@code Command}.
+     */
+    static Command event(String args, String description, LocalDateTime from, LocalDateTime to) {
+        return new Command(Action.EVENT, args, description, null, from, to, 0, false, 0, NO_LIMIT, null);
+    }
+
+    /**
+     * Creates a command that lists a range of the tasks.
+     *
+     * @param args The arguments of the command.
+     * @param offset The number of tasks to skip.
+     * @param limit The maximum number of tasks to show, or {@code NO_LIMIT}.
+     * @return The corresponding {@code Command}.
+     */
+    static Command list(String args, int offset, int limit) {
+        return new Command(Action.LIST, args, null, null, null, null, 0, false, offset, limit, null);
+    }
+
+    /**
+     * Creates a command that finds the tasks within a date-time range.
+     *
+     * @param args The arguments of the command.
+     * @param from The start of the range, inclusive.
+     * @param to The end of the range, inclusive.
+     * @param offset The number of matching tasks to skip.
+     * @param limit The maximum number of matching tasks to show, or {@code NO_LIMIT}.
+     * @return The corresponding {@code Command}.
+     */
+    static Command find(String args, LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        return new Command(Action.FIND, args, null, null, from, to, 0, false, offset, limit, null);
+    }
+
+    /**
+     * Creates a command that finds the tasks containing a keyword.
+     *
+     * @param args The arguments of the command.
+     * @param keyword The keyword to search for, which is kept as the description.
+     * @param offset The number of matching tasks to skip.
+     * @param limit The maximum number of matching tasks to show, or {@code NO_LIMIT}.
+     * @return The corresponding {@code Command}.
+     */
+    static Command findKeyword(String args, String keyword, int offset, int limit) {
+        return new Command(Action.FIND_KEYWORD, args, keyword, null, null, null, 0, false, offset, limit, null);
+    }
+
+    /**
+     * Creates a command that refers to a single task.
+     *
+     * @param action The action to perform on the task.
+     * @param args The arguments of the command.
+     * @param taskNumber The 1-based task number, or the task ID.
+     * @param isIdReference Whether {@code taskNumber} is a task ID.
+     * @return The corresponding {@code Command}.
+     */
+    static Command taskReference(Action action, String args, int taskNumber, boolean isIdReference) {
+        return new Command(action, args, null, null, null, null, taskNumber, isIdReference, 0, NO_LIMIT, null);
+    }
+
+    /**
+     * Creates a command that marks, unmarks or deletes every selected task at once.
+     *
+     * @param action The action to perform on the tasks.
+     * @param args The arguments of the command.
+     * @param selector The tasks to perform the action on.
+     * @return The corresponding {@code Command}.
+     */
+    static Command bulk(Action action, String args, TaskSelector selector) {
+        return new Command(action, args, null, null, null, null, 0, false, 0, NO_LIMIT, selector);
     }
 
     /**
@@ -39,4 +186,50 @@ public class Command {
     public String getArgs() {
         return args;
     }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getBy() {
+        return by;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public int getTaskNumber() {
+        return taskNumber;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the tasks a bulk mark, unmark or delete applies to.
+     *
+     * @return The selector, or {@code null} if the command refers to a single task or is not a bulk command.
+     */
+    public TaskSelector getSelector() {
+        return selector;
+    }
+
+    /**
+     * Returns whether the task number of this command is a task ID given as {@code #id}.
+     *
+     * @return {@code true} if the command refers to a task by ID, {@code false} if by its position.
+     */
+    public boolean isIdReference() {
+        return isIdReference;
+    }
 }
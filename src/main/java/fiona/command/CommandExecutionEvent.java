@@ -0,0 +1,46 @@
+package fiona.command;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code CommandExecutionEvent} class is a Flight Recorder event covering the execution of one command.
+ * The change it makes is saved in the background afterwards and covered by a {@code StorageSaveEvent}.
+ */
+@Name("fiona.CommandExecution")
+@Label("Command Execution")
+@Category("Fiona")
+@Description("Execution of one command, without saving its change in the background")
+final class CommandExecutionEvent extends Event {
+    @Label("Action")
+    private String action;
+
+    @Label("Argument Length")
+    private int argumentLength;
+
+    @Label("Task Count")
+    @Description("The number of tasks after the command ran")
+    private int taskCount;
+
+    @Label("Successful")
+    private boolean isSuccessful;
+
+    void setAction(Action action) {
+        this.action = action.name();
+    }
+
+    void setArgumentLength(int argumentLength) {
+        this.argumentLength = argumentLength;
+    }
+
+    void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    void setSuccessful(boolean isSuccessful) {
+        this.isSuccessful = isSuccessful;
+    }
+}
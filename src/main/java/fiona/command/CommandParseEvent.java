@@ -0,0 +1,31 @@
+package fiona.command;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code CommandParseEvent} class is a Flight Recorder event covering the parsing of one line of user input.
+ */
+@Name("fiona.CommandParse")
+@Label("Command Parse")
+@Category("Fiona")
+@Description("Parsing of one line of user input")
+final class CommandParseEvent extends Event {
+    @Label("Action")
+    @Description("The parsed action, or null if the input could not be parsed")
+    private String action;
+
+    @Label("Input Length")
+    private int inputLength;
+
+    void setAction(Action action) {
+        this.action = action.name();
+    }
+
+    void setInputLength(int inputLength) {
+        this.inputLength = inputLength;
+    }
+}
@@ -0,0 +1,217 @@
+package fiona.command;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import fiona.task.Deadline;
+import fiona.task.Event;
+import fiona.task.Task;
+
+/**
+ * The {@code DateIndex} class indexes deadlines and events by their date-times so that date range
+ * queries run in O(log n + k) time instead of scanning every task.
+ *
+ * <p>Deadlines are kept in a sorted map keyed by their due date. Events are kept in an interval tree,
+ * a treap ordered by start time in which every node also records the latest end time in its subtree.
+ * Date-times are compared as minutes since the epoch, as stored by the tasks themselves.
+ */
+final class DateIndex {
+    private final NavigableMap<Long, List<Task>> deadlines = new TreeMap<>();
+    private final Map<Task, Node> eventNodes = new IdentityHashMap<>();
+    private final Random random = new Random();
+    private Node eventRoot;
+    private long nextSequence;
+
+    /**
+     * Constructs a {@code DateIndex} containing the deadlines and events among the given tasks.
+     *
+     * @param tasks The tasks to index.
+     */
+    DateIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task to the index. Tasks without date-times are ignored.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            deadlines.computeIfAbsent(((Deadline) task).getDeadlineEpochMinute(), key -> new ArrayList<>(1)).add(task);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            Node node = new Node(event, nextSequence++, random.nextInt());
+            eventNodes.put(task, node);
+            eventRoot = insert(eventRoot, node);
+        }
+    }
+
+    /**
+     * Removes a task from the index. Tasks that are not indexed are ignored.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            long deadline = ((Deadline) task).getDeadlineEpochMinute();
+            List<Task> sameTime = deadlines.get(deadline);
+            if (sameTime != null && sameTime.removeIf(t -> t == task) && sameTime.isEmpty()) {
+                deadlines.remove(deadline);
+            }
+        } else if (task instanceof Event) {
+            Node node = eventNodes.remove(task);
+            if (node != null) {
+                eventRoot = delete(eventRoot, node);
+            }
+        }
+    }
+
+    /**
+     * Returns the deadlines due within the given range and the events overlapping it, ordered by their
+     * due date or start time. The range is compared to the minute.
+     *
+     * @param start The start of the range, inclusive.
+     * @param end The end of the range, inclusive.
+     * @return The matching tasks.
+     */
+    List<Task> find(LocalDateTime start, LocalDateTime end) {
+        long startMinute = Task.toEpochMinute(start);
+        long endMinute = Task.toEpochMinute(end);
+        List<Task> matches = new ArrayList<>();
+        deadlines.subMap(startMinute, true, endMinute, true).values().forEach(matches::addAll);
+        collectOverlapping(eventRoot, startMinute, endMinute, matches);
+        matches.sort(Comparator.comparingLong(DateIndex::startOf));
+        return matches;
+    }
+
+    private static long startOf(Task task) {
+        return task instanceof Deadline
+                ? ((Deadline) task).getDeadlineEpochMinute()
+                : ((Event) task).getFromEpochMinute();
+    }
+
+    private static void collectOverlapping(Node node, long start, long end, List<Task> matches) {
+        if (node == null || node.maxTo < start) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, matches);
+        if (node.from > end) {
+            // Every event in the right subtree starts even later.
+            return;
+        }
+        if (node.to >= start) {
+            matches.add(node.event);
+        }
+        collectOverlapping(node.right, start, end, matches);
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        int comparison = node.compareTo(root);
+        if (comparison < 0) {
+            root.left = delete(root.left, node);
+        } else if (comparison > 0) {
+            root.right = delete(root.right, node);
+        } else if (root.left == null) {
+            return root.right;
+        } else if (root.right == null) {
+            return root.left;
+        } else if (root.left.priority > root.right.priority) {
+            root = rotateRight(root);
+            root.right = delete(root.right, node);
+        } else {
+            root = rotateLeft(root);
+            root.left = delete(root.left, node);
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node rotateRight(Node root) {
+        Node pivot = root.left;
+        root.left = pivot.right;
+        pivot.right = root;
+        root.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node root) {
+        Node pivot = root.right;
+        root.right = pivot.left;
+        pivot.left = root;
+        root.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * A node of the event interval tree.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final Event event;
+        private final long from;
+        private final long to;
+        private final long sequence;
+        private final int priority;
+        private long maxTo;
+        private Node left;
+        private Node right;
+
+        Node(Event event, long sequence, int priority) {
+            this.event = event;
+            this.from = event.getFromEpochMinute();
+            this.to = event.getToEpochMinute();
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxTo = to;
+        }
+
+        void update() {
+            maxTo = to;
+            if (left != null) {
+                maxTo = Math.max(maxTo, left.maxTo);
+            }
+            if (right != null) {
+                maxTo = Math.max(maxTo, right.maxTo);
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int comparison = Long.compare(from, other.from);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
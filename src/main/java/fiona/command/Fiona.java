@@ -1,27 +1,46 @@
 package fiona.command;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import fiona.task.Deadline;
 import fiona.task.Event;
 import fiona.task.Task;
 import fiona.task.Todo;
-import javafx.application.Platform;
 
 /**
  * The {@code Fiona} class represents a chatbot that helps users manage tasks.
- * It supports adding, listing, marking, unmarking, deleting, and finding tasks.
+ * It supports adding, listing, marking, unmarking, deleting, and finding tasks, and undoing and redoing changes.
  * Tasks can be of type {@code Todo}, {@code Deadline}, or {@code Event}.
  */
 public class Fiona {
     private final Storage storage;
     private TaskList tasks;
     private final Ui ui;
+    private final Metrics metrics = new Metrics();
+    private final GroupCommitWriter writer;
+
+    /** Whether the "bye" command has been given through {@code getResponse}. */
+    private volatile boolean isFinished;
+
+    /** The changes not yet persisted while saves are deferred, or {@code null} if every change is saved at once. */
+    private List<TaskChange> pendingChanges;
 
     /**
      * Constructs a {@code Fiona} chatbot that loads tasks from the specified file.
@@ -30,18 +49,37 @@ public class Fiona {
      */
     public Fiona(String filePath) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = Storage.create(filePath);
+        writer = new GroupCommitWriter(storage, metrics, this, () -> tasks.getTasks());
         try {
+            StorageLoadEvent loadEvent = new StorageLoadEvent();
+            loadEvent.begin();
             tasks = new TaskList(storage.load());
-            tasks.purgeOverdueTasks();
-            storage.save(tasks.getTasks());
+            loadEvent.setPath(filePath);
+            loadEvent.setStorage(storage);
+            loadEvent.setTaskCount(tasks.size());
+            loadEvent.setFileSize(new File(filePath).length());
+            loadEvent.commit();
+            // The file is only rewritten if loading changed the tasks, so starting up needs no write.
+            if (tasks.purgeOverdueTasks() > 0 || !storage.getLoadErrors().isEmpty()) {
+                saveAll();
+            }
             ui.showWelcome();
-            listTasks();
+            storage.getSettingErrors().forEach(ui::showMessage);
+            ui.showLoadErrors(storage.getLoadErrors());
+            listTasks(Command.list("", 0, Command.NO_LIMIT), ui);
         } catch (IOException e) {
             ui.showLoadingError();
+            storage.getSettingErrors().forEach(ui::showMessage);
             tasks = new TaskList();
         }
         ui.showLine();
+        metrics.register();
+
+        long purgeIntervalSeconds = Long.getLong("fiona.purgeInterval", 0);
+        if (purgeIntervalSeconds > 0) {
+            startOverduePurger(purgeIntervalSeconds);
+        }
     }
 
     /**
@@ -56,84 +94,230 @@ public class Fiona {
         this.storage = storage;
         this.tasks = tasks;
         this.ui = ui;
+        this.writer = new GroupCommitWriter(storage, metrics, this, () -> this.tasks.getTasks());
     }
+
     /**
-     * Runs the chatbot. It continuously processes user commands until the "bye" command is given.
+     * Starts deleting overdue deadlines and events in the background while the chatbot runs,
+     * saving the task list whenever any are deleted.
+     *
+     * @param intervalSeconds The time between purges in seconds.
+     */
+    public void startOverduePurger(long intervalSeconds) {
+        ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fiona-overdue-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeOverdueTasks, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private synchronized void purgeOverdueTasks() {
+        try {
+            if (tasks.purgeOverdueTasks() == 0) {
+                return;
+            }
+            if (pendingChanges == null) {
+                writer.addFullSave();
+                return;
+            }
+            saveAll();
+            // The full save already contains the deferred changes.
+            pendingChanges.clear();
+        } catch (IOException e) {
+            ui.showMessage("Error saving tasks after removing overdue ones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the chatbot. It continuously processes user commands until the "bye" command is given,
+     * and then waits for the changes to be saved.
      */
     public void run() {
+        ui.setOutput(new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out))));
+        ui.flush();
         while (true) {
             try {
                 String fullCommand = ui.readCommand();
-                Command command = Parser.parse(fullCommand);
-                Action action = command.getAction();
-
-                if (action == Action.BYE) {
+                if (fullCommand == null || !runLine(fullCommand, ui)) {
                     break;
                 }
-
-                ui.showLine();
-                handleCommand(command);
-                ui.showLine();
             } catch (IOException e) {
                 ui.showMessage("Error reading input: " + e.getMessage());
-            } catch (FionaException e) {
-                ui.showMessage(e.getMessage());
-                ui.showLine();
+            }
+            ui.flush();
+        }
+        try {
+            awaitSaved();
+        } catch (IOException e) {
+            System.out.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs every command read from the given input, printing the same output as the interactive loop.
+     * Changes are kept in memory and saved together every {@code saveInterval} changes and at the end,
+     * instead of once per command.
+     *
+     * @param input The commands to run, one per line. Reading stops at the end of the input or at "bye".
+     * @param out The stream to print the output to.
+     * @param saveInterval The number of changes after which they are saved, or 0 to save only at the end.
+     * @throws IOException If there is an error reading the commands or saving the tasks.
+     */
+    public void runBatch(BufferedReader input, PrintStream out, int saveInterval) throws IOException {
+        awaitSaved();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        ui.setOutput(new PrintWriter(out));
+        try {
+            ui.flush();
+            String fullCommand;
+            while ((fullCommand = input.readLine()) != null) {
+                boolean isRunning = runLine(fullCommand, ui);
+                ui.flush();
+                if (!isRunning) {
+                    break;
+                }
+                if (saveInterval > 0) {
+                    savePendingChanges(saveInterval);
+                }
+            }
+        } finally {
+            ui.setOutput(null);
+            savePendingChanges(1);
+            synchronized (this) {
+                pendingChanges = null;
             }
         }
     }
 
+    /**
+     * Runs a single line of input, adding its output to the {@code Ui}.
+     *
+     * @param fullCommand The line of input.
+     * @param ui The {@code Ui} to add the output to.
+     * @return {@code false} if the line was the "bye" command, {@code true} otherwise.
+     */
+    boolean runLine(String fullCommand, Ui ui) {
+        try {
+            Command command = parse(fullCommand);
+            if (command.getAction() == Action.BYE) {
+                return false;
+            }
+
+            ui.showLine();
+            Exception failure = writer.takeFailure();
+            if (failure != null) {
+                ui.showMessage("Error saving tasks: " + failure.getMessage());
+            }
+            handleCommand(command, ui);
+            ui.showLine();
+        } catch (FionaException e) {
+            ui.showMessage(e.getMessage());
+            ui.showLine();
+        }
+        return true;
+    }
+
     /**
      * Handles the given user command.
      *
      * @param command The command to process.
+     * @param ui The {@code Ui} to show the result on.
      * @throws FionaException If any command format is invalid.
-     * @throws IOException    If there is an error accessing the specified file.
      */
-    private void handleCommand(Command command) throws FionaException, IOException {
+    private void handleCommand(Command command, Ui ui) throws FionaException {
+        CommandExecutionEvent event = new CommandExecutionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean isSuccessful = false;
         try {
-            runAction(command.getAction(), command.getArgs());
-        } catch (NumberFormatException e) {
-            throw new FionaException("The task number you specified must be a valid integer!");
+            if (command.getAction().changesTasks()) {
+                // Changes are applied and persisted one at a time, while queries run concurrently.
+                synchronized (this) {
+                    runAction(command, ui);
+                }
+            } else {
+                runAction(command, ui);
+            }
+            isSuccessful = true;
+        } finally {
+            metrics.recordExecute(command.getAction(), System.nanoTime() - start, isSuccessful);
+            event.setAction(command.getAction());
+            event.setArgumentLength(command.getArgs().length());
+            event.setTaskCount(tasks.size());
+            event.setSuccessful(isSuccessful);
+            event.commit();
         }
     }
 
     /**
-     * Executes the appropriate action based on the given Action and args.
+     * Parses the given user input, recording how long it takes.
      *
-     * @param action The Action to perform (e.g., TODO, LIST, etc.).
-     * @param args   The arguments passed to that action.
+     * @param input The full command entered by the user.
+     * @return The parsed command.
      * @throws FionaException If the command format is invalid.
-     * @throws IOException    If there is an error accessing the file.
      */
-    private void runAction(Action action, String args) throws FionaException, IOException {
-        switch (action) {
+    private Command parse(String input) throws FionaException {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Command command = Parser.parse(input);
+            event.setAction(command.getAction());
+            return command;
+        } finally {
+            metrics.recordParse(System.nanoTime() - start);
+            event.setInputLength(input.length());
+            event.commit();
+        }
+    }
+
+    /**
+     * Executes the appropriate action for the given parsed command.
+     *
+     * @param command The command to perform.
+     * @param ui The {@code Ui} to show the result on.
+     * @throws FionaException If the command cannot be performed.
+     */
+    private void runAction(Command command, Ui ui) throws FionaException {
+        switch (command.getAction()) {
         case TODO:
-            addTodo(args);
+            addTodo(command, ui);
             break;
         case DEADLINE:
-            addDeadline(args);
+            addDeadline(command, ui);
             break;
         case EVENT:
-            addEvent(args);
+            addEvent(command, ui);
             break;
         case LIST:
-            listTasks();
+            listTasks(command, ui);
             break;
         case MARK:
-            markTask(args);
+            markTask(command, ui);
             break;
         case UNMARK:
-            unmarkTask(args);
+            unmarkTask(command, ui);
             break;
         case DELETE:
-            deleteTask(args);
+            deleteTask(command, ui);
             break;
         case FIND:
-            findTasks(args);
+            findTasks(command, ui);
             break;
         case FIND_KEYWORD:
-            findTasksByKeyword(args);
+            findTasksByKeyword(command, ui);
+            break;
+        case STATS:
+            metrics.report().forEach(ui::showMessage);
+            break;
+        case UNDO:
+            applyHistory(tasks.undo(), "Undone.", ui);
+            break;
+        case REDO:
+            applyHistory(tasks.redo(), "Redone.", ui);
             break;
         default:
             throw new FionaException("I'm sorry, but I don't know what that means :-(");
@@ -143,237 +327,366 @@ public class Fiona {
     /**
      * Adds a new {@code Todo} task.
      *
-     * @param args The description of the task.
-     * @throws FionaException If the description is empty.
-     * @throws IOException    If there is an error saving to the specified file.
+     * @param command The parsed todo command.
+     * @param ui The {@code Ui} to show the result on.
      */
-    private void addTodo(String args) throws FionaException, IOException {
-        if (args.isEmpty()) {
-            throw new FionaException("The description of a todo cannot be empty.");
-        }
-        Task todo = new Todo(args);
-        tasks.add(todo);
-        storage.save(tasks.getTasks());
-        ui.showMessage("Got it. I've added this task:");
-        ui.showMessage(todo.toString());
-        ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
+    private void addTodo(Command command, Ui ui) {
+        addTask(new Todo(command.getDescription()), ui);
     }
 
     /**
      * Adds a new {@code Deadline} task.
      *
-     * @param args The task description and deadline, formatted as "description /by deadline".
-     * @throws FionaException If the input format is invalid.
-     * @throws IOException    If there is an error saving to the specified file.
-     */
-    private void addDeadline(String args) throws FionaException, IOException {
-        if (!args.contains("/by")) {
-            throw new FionaException("The description of a deadline must include a '/by' clause.");
-        }
-        String[] parts = args.split("/by", 2);
-        if (parts.length < 2 || parts[0].trim().isEmpty() || parts[1].trim().isEmpty()) {
-            throw new FionaException("Invalid format for deadline. Use: deadline <description> /by <deadline>");
-        }
-        String description = parts[0].trim();
-        String deadline = parts[1].trim();
-        Task deadlineTask = new Deadline(description, deadline);
-        tasks.add(deadlineTask);
-        storage.save(tasks.getTasks());
-        ui.showMessage("Got it. I've added this task:");
-        ui.showMessage(deadlineTask.toString());
-        ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
+     * @param command The parsed deadline command.
+     * @param ui The {@code Ui} to show the result on.
+     * @throws FionaException If the deadline is in the past.
+     */
+    private void addDeadline(Command command, Ui ui) throws FionaException {
+        addTask(new Deadline(command.getDescription(), command.getBy()), ui);
     }
 
     /**
      * Adds a new {@code Event} task.
      *
-     * @param args The task description, from, and to, formatted as "description /from from /to to".
-     * @throws FionaException If the input format is invalid.
-     * @throws IOException    If there is an error saving to the specified file.
+     * @param command The parsed event command.
+     * @param ui The {@code Ui} to show the result on.
+     * @throws FionaException If the event ends before it starts or has already ended.
      */
-    private void addEvent(String args) throws FionaException, IOException {
-        if (!args.contains("/from") || !args.contains("/to")) {
-            throw new FionaException("The description of an event must include '/from' and '/to' clauses.");
-        }
-        String[] fromSplit = args.split("/from", 2);
-        Task event = getTask(fromSplit);
-        tasks.add(event);
-        storage.save(tasks.getTasks());
-        ui.showMessage("Got it. I've added this task:");
-        ui.showMessage(event.toString());
-        ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
+    private void addEvent(Command command, Ui ui) throws FionaException {
+        addTask(new Event(command.getDescription(), command.getFrom(), command.getTo()), ui);
     }
 
-    private static Task getTask(String[] fromSplit) throws FionaException {
-        if (fromSplit.length < 2 || fromSplit[0].trim().isEmpty() || fromSplit[1].trim().isEmpty()) {
-            throw new FionaException("Invalid format for event. Use: event <description> /from <start> /to <end>");
-        }
-        String description = fromSplit[0].trim();
-        String[] toSplit = fromSplit[1].split("/to", 2);
-        if (toSplit.length < 2 || toSplit[0].trim().isEmpty() || toSplit[1].trim().isEmpty()) {
-            throw new FionaException("Invalid format for event. Use: event <description> /from <start> /to <end>");
-        }
-        String from = toSplit[0].trim();
-        String to = toSplit[1].trim();
-        return new Event(description, from, to);
+    private void addTask(Task task, Ui ui) {
+        tasks.add(task);
+        persist(TaskChange.added(tasks.size() - 1, task));
+        ui.showMessage("Got it. I've added this task:");
+        ui.showMessage(describe(task));
+        ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
     }
 
     /**
-     * Lists all tasks currently stored.
+     * Lists the tasks in the range given by the command, writing them to the {@code Ui} one at a time.
+     *
+     * @param command The parsed list command.
+     * @param ui The {@code Ui} to show the tasks on.
      */
-    private void listTasks() {
-        if (tasks.size() == 0) {
+    private void listTasks(Command command, Ui ui) {
+        List<Task> taskList = tasks.getTasks();
+        if (taskList.isEmpty()) {
             ui.showMessage("Your task list is empty!");
         } else {
             ui.showMessage("Here are your existing tasks:");
-            List<Task> taskList = tasks.getTasks();
-            java.util.concurrent.atomic.AtomicInteger counter = new java.util.concurrent.atomic.AtomicInteger(1);
-            taskList.forEach(task -> ui.showMessage(counter.getAndIncrement() + ". " + task));
+            showPage(taskList, command, ui);
+        }
+    }
+
+    /**
+     * Shows the numbered tasks in the range given by a list or find command.
+     * A command without a range shows every task if the {@code Ui} streams its output, and only the first page
+     * otherwise, so that a reply that is kept in memory stays small however many tasks there are.
+     *
+     * @param matches The tasks to show a range of.
+     * @param command The parsed command with the range to show.
+     * @param ui The {@code Ui} to show the tasks on.
+     */
+    private static void showPage(List<Task> matches, Command command, Ui ui) {
+        int limit = command.getLimit() == Command.NO_LIMIT && !ui.isStreaming() ? Parser.PAGE_SIZE : command.getLimit();
+        int first = Math.min(command.getOffset(), matches.size());
+        int end = first + Math.min(limit, matches.size() - first);
+        if (first == end) {
+            ui.showMessage("There are only " + matches.size() + " task(s) to show.");
+            return;
+        }
+        for (int i = first; i < end; i++) {
+            ui.showMessage((i + 1) + ". " + describe(matches.get(i)));
         }
+        String shown = "Showing " + (first + 1) + "-" + end + " of " + matches.size() + ".";
+        if (end < matches.size()) {
+            ui.showMessage(shown + " Add --page " + (end / Parser.PAGE_SIZE + 1) + " to see the next page.");
+        } else if (first > 0) {
+            ui.showMessage(shown);
+        }
+    }
+
+    /**
+     * Returns the task followed by its ID, which can be used to refer to it as {@code #id}.
+     */
+    private static String describe(Task task) {
+        return task + " (#" + task.getId() + ")";
     }
 
     /**
      * Marks a task as completed.
      *
-     * @param args The task number to mark.
+     * @param command The parsed command with the task number to mark, the ID of the task, or the tasks to mark.
+     * @param ui The {@code Ui} to show the result on.
      * @throws FionaException If the task number is invalid.
-     * @throws IOException    If there is an error saving to specified file.
      */
-    private void markTask(String args) throws FionaException, IOException {
-        if (args.isEmpty()) {
-            throw new FionaException("You must specify a valid task number to mark as done.");
+    private void markTask(Command command, Ui ui) throws FionaException {
+        if (command.getSelector() != null) {
+            List<Task> marked = tasks.markAll(command.getSelector());
+            persistAll(marked, task -> TaskChange.marked(-1, task));
+            showTasks("Nice! I've marked " + marked.size() + " task(s) as done:", marked, ui);
+            return;
+        }
+        Task task;
+        if (command.isIdReference()) {
+            task = tasks.markById(command.getTaskNumber());
+            persist(TaskChange.marked(-1, task));
+        } else {
+            int id = command.getTaskNumber() - 1;
+            task = tasks.mark(id);
+            persist(TaskChange.marked(id, task));
         }
-        int id = Integer.parseInt(args) - 1;
-        Task task = tasks.mark(id);
-        storage.save(tasks.getTasks());
         ui.showMessage("Nice! I've marked this task as done:");
-        ui.showMessage(task.toString());
+        ui.showMessage(describe(task));
     }
 
     /**
      * Unmarks a task as not completed yet.
      *
-     * @param args The task number to mark.
+     * @param command The parsed command with the task number to unmark, the ID of the task, or the tasks to
+     *     unmark.
+     * @param ui The {@code Ui} to show the result on.
      * @throws FionaException If the task number is invalid.
-     * @throws IOException    If there is an error saving to specified file.
      */
-    private void unmarkTask(String args) throws FionaException, IOException {
-        if (args.isEmpty()) {
-            throw new FionaException("You must specify a valid task number to mark as not done yet.");
+    private void unmarkTask(Command command, Ui ui) throws FionaException {
+        if (command.getSelector() != null) {
+            List<Task> unmarked = tasks.unmarkAll(command.getSelector());
+            persistAll(unmarked, task -> TaskChange.unmarked(-1, task));
+            showTasks("OK, I've marked " + unmarked.size() + " task(s) as not done yet:", unmarked, ui);
+            return;
+        }
+        Task task;
+        if (command.isIdReference()) {
+            task = tasks.unmarkById(command.getTaskNumber());
+            persist(TaskChange.unmarked(-1, task));
+        } else {
+            int id = command.getTaskNumber() - 1;
+            task = tasks.unmark(id);
+            persist(TaskChange.unmarked(id, task));
         }
-        int id = Integer.parseInt(args) - 1;
-        Task task = tasks.unmark(id);
-        storage.save(tasks.getTasks());
         ui.showMessage("OK, I've marked this task as not done yet:");
-        ui.showMessage(task.toString());
+        ui.showMessage(describe(task));
     }
 
     /**
      * Deletes a task from the list.
      *
-     * @param args The task number to delete.
+     * @param command The parsed command with the task number to delete, the ID of the task, or the tasks to
+     *     delete.
+     * @param ui The {@code Ui} to show the result on.
      * @throws FionaException If the task number is invalid.
-     * @throws IOException    If there is an error saving to specified file.
      */
-    private void deleteTask(String args) throws FionaException, IOException {
-        if (args.isEmpty()) {
-            throw new FionaException("You must specify a valid task number to delete.");
+    private void deleteTask(Command command, Ui ui) throws FionaException {
+        if (command.getSelector() != null) {
+            List<Task> deleted = tasks.deleteAll(command.getSelector());
+            persistAll(deleted, task -> TaskChange.deleted(-1, task));
+            showTasks("Noted. I've removed " + deleted.size() + " task(s):", deleted, ui);
+            ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
+            return;
+        }
+        Task task;
+        if (command.isIdReference()) {
+            task = tasks.deleteById(command.getTaskNumber());
+            persist(TaskChange.deleted(-1, task));
+        } else {
+            int id = command.getTaskNumber() - 1;
+            task = tasks.delete(id);
+            persist(TaskChange.deleted(id, task));
         }
-        int id = Integer.parseInt(args) - 1;
-        Task task = tasks.getTasks().remove(id);
-        storage.save(tasks.getTasks());
         ui.showMessage("Noted. I've removed this task:");
-        ui.showMessage(task.toString());
+        ui.showMessage(describe(task));
         ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
     }
 
-    private void findTasks(String args) throws FionaException {
-        if (args.isEmpty()) {
-            throw new FionaException("You must specify a date or date-time in the correct format to find tasks.");
-        }
-        LocalDateTime start;
-        LocalDateTime end;
-        if (isDateOnly(args)) {
-            LocalDate date = parseLocalDate(args);
-            start = date.atStartOfDay();
-            end = date.atTime(23, 59);
-        } else if (isDateTime(args)) {
-            LocalDateTime dateTime = parseLocalDateTime(args);
-            start = dateTime;
-            end = dateTime;
-        } else {
-            throw new FionaException("Invalid date/time format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm.");
+    /**
+     * Shows the tasks changed by a bulk command, at most a page of them unless the {@code Ui} streams its output.
+     *
+     * @param message The message to show before the tasks.
+     * @param changed The tasks that were changed.
+     * @param ui The {@code Ui} to show the tasks on.
+     */
+    private static void showTasks(String message, List<Task> changed, Ui ui) {
+        if (changed.isEmpty()) {
+            ui.showMessage("No tasks needed changing.");
+            return;
+        }
+        ui.showMessage(message);
+        int shown = ui.isStreaming() ? changed.size() : Math.min(changed.size(), Parser.PAGE_SIZE);
+        for (int i = 0; i < shown; i++) {
+            ui.showMessage(describe(changed.get(i)));
+        }
+        if (shown < changed.size()) {
+            ui.showMessage("...and " + (changed.size() - shown) + " more.");
         }
+    }
 
-        List<Task> matchingTasks = tasks.getTasks().stream()
-                .filter(task -> isTaskInRange(task, start, end))
-                .toList();
+    /**
+     * Persists the changes applied by undoing or redoing an earlier edit, and describes them.
+     *
+     * @param changes The changes that were applied, which are all of the same type.
+     * @param prefix The message to start the description with.
+     * @param ui The {@code Ui} to show the result on.
+     */
+    private void applyHistory(List<TaskChange> changes, String prefix, Ui ui) {
+        persistAll(changes);
+        TaskChange first = changes.get(0);
+        String subject = changes.size() == 1 ? "this task" : changes.size() + " tasks";
+        String message;
+        switch (first.getType()) {
+        case INSERT:
+            String position = changes.size() == 1 ? " as number " + (first.getIndex() + 1) : "";
+            message = prefix + " I've put " + subject + " back" + position + ":";
+            break;
+        case DELETE:
+            message = prefix + " I've removed " + subject + ":";
+            break;
+        case MARK:
+            message = prefix + " I've marked " + subject + " as done:";
+            break;
+        default:
+            message = prefix + " I've marked " + subject + " as not done yet:";
+            break;
+        }
+        List<Task> changed = new ArrayList<>(changes.size());
+        for (TaskChange change : changes) {
+            changed.add(change.getTask());
+        }
+        showTasks(message, changed, ui);
+        ui.showMessage("Now you have " + tasks.size() + " task(s) in the list.");
+    }
 
-        if (matchingTasks.isEmpty()) {
-            ui.showMessage("No tasks found matching the date/date-time you provided");
-        } else {
-            ui.showMessage("Here are the matching tasks:");
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                ui.showMessage((i + 1) + ". " + matchingTasks.get(i));
-            }
+    /**
+     * Persists a change that has just been applied to the task list.
+     * The change is saved in the background, together with any other changes made in the meantime,
+     * unless saves are deferred by a batch.
+     *
+     * @param change The change to persist.
+     */
+    private void persist(TaskChange change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+            return;
         }
+        writer.add(change);
     }
 
-    private boolean isDateOnly(String input) {
-        return input.matches("\\d{4}-\\d{2}-\\d{2}");
+    /**
+     * Persists the changes a single command has just applied to the task list, in a single save.
+     *
+     * @param changes The changes to persist, in order.
+     */
+    private void persistAll(List<TaskChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (pendingChanges != null) {
+            pendingChanges.addAll(changes);
+            return;
+        }
+        writer.addAll(changes);
     }
 
-    private boolean isDateTime(String input) {
-        return input.matches("\\d{4}-\\d{2}-\\d{2}\\s+\\d{4}");
+    private void persistAll(List<Task> changed, Function<Task, TaskChange> change) {
+        List<TaskChange> changes = new ArrayList<>(changed.size());
+        for (Task task : changed) {
+            changes.add(change.apply(task));
+        }
+        persistAll(changes);
     }
 
-    private LocalDate parseLocalDate(String dateStr) throws FionaException {
+    /**
+     * Returns a future that completes once every change made so far has been saved, for callers that
+     * need the changes to be durable before going on. The future completes exceptionally if a save fails.
+     *
+     * @return The future of the saves of the changes made so far.
+     */
+    public CompletableFuture<Void> flush() {
+        return writer.flush();
+    }
+
+    /**
+     * Waits until every change made so far has been saved. A save error thrown here is not reported again
+     * by the next command.
+     *
+     * @throws IOException If there is an error saving to the specified file.
+     */
+    void awaitSaved() throws IOException {
         try {
-            return LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        } catch (DateTimeParseException e) {
-            throw new FionaException("Invalid date format. Please use yyyy-MM-dd (e.g., 2025-02-13).");
+            flush().join();
+        } catch (CompletionException e) {
+            writer.takeFailure();
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
         }
     }
 
-    private LocalDateTime parseLocalDateTime(String dateTimeStr) throws FionaException {
-        try {
-            return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-        } catch (DateTimeParseException e) {
-            throw new FionaException("Invalid date-time format. Please use yyyy-MM-dd HHmm (e.g., 2025-02-13 1800).");
+    /**
+     * Saves the whole task list.
+     *
+     * @throws IOException If there is an error saving to the specified file.
+     */
+    private void saveAll() throws IOException {
+        long start = System.nanoTime();
+        storage.save(tasks.getTasks());
+        metrics.recordSave(System.nanoTime() - start);
+    }
+
+    /**
+     * Saves the changes deferred while running a batch once there are enough of them.
+     *
+     * @param minChanges The number of deferred changes needed to save them.
+     * @throws IOException If there is an error saving to the specified file.
+     */
+    private synchronized void savePendingChanges(int minChanges) throws IOException {
+        if (pendingChanges == null || pendingChanges.size() < minChanges) {
+            return;
         }
+        long start = System.nanoTime();
+        storage.saveChanges(tasks, pendingChanges);
+        metrics.recordSave(System.nanoTime() - start);
+        pendingChanges.clear();
     }
 
-    private boolean isTaskInRange(Task task, LocalDateTime start, LocalDateTime end) {
-        if (task instanceof Deadline deadlineTask) {
-            LocalDateTime dl = deadlineTask.getDeadline();
-            return !dl.isBefore(start) && !dl.isAfter(end);
-        } else if (task instanceof Event eventTask) {
-            return !eventTask.getTo().isBefore(start) && !eventTask.getFrom().isAfter(end);
+    /**
+     * Finds the tasks falling within the date or date-time of the given command.
+     *
+     * @param command The parsed find command.
+     * @param ui The {@code Ui} to show the result on.
+     */
+    private void findTasks(Command command, Ui ui) {
+        List<Task> matchingTasks = tasks.findByDate(command.getFrom(), command.getTo());
+
+        if (matchingTasks.isEmpty()) {
+            ui.showMessage("No tasks found matching the date/date-time you provided");
+        } else {
+            ui.showMessage("Here are the matching tasks:");
+            showPage(matchingTasks, command, ui);
         }
-        return false;
     }
 
     /**
-     * Finds tasks containing the given keyword in their description.
+     * Finds tasks containing the keyword of the given command in their description.
      *
-     * @param keyword The keyword to search for.
+     * @param command The parsed find command with the keyword to search for.
+     * @param ui The {@code Ui} to show the result on.
      * @throws FionaException If the keyword is empty.
      */
-    private void findTasksByKeyword(String keyword) throws FionaException {
+    private void findTasksByKeyword(Command command, Ui ui) throws FionaException {
+        String keyword = command.getDescription();
         if (keyword.isEmpty()) {
             throw new FionaException("You must specify a keyword to search for.");
         }
 
-        List<Task> matchingTasks = tasks.getTasks().stream()
-                .filter(t -> t.getName().toLowerCase().contains(keyword.toLowerCase()))
-                .toList();
+        List<Task> matchingTasks = tasks.findByKeyword(keyword);
         if (matchingTasks.isEmpty()) {
             ui.showMessage("No tasks found containing the keyword: " + keyword);
         } else {
             ui.showMessage("Here are the tasks containing \"" + keyword + "\":");
-            for (int i = 0; i < matchingTasks.size(); ++i) {
-                ui.showMessage((i + 1) + ". " + matchingTasks.get(i));
-            }
+            showPage(matchingTasks, command, ui);
         }
     }
 
@@ -385,30 +698,63 @@ public class Fiona {
      * @throws IOException    If there is an error accessing storage.
      */
     public void processCommand(String fullCommand) throws FionaException, IOException {
-        Command command = Parser.parse(fullCommand);
-        handleCommand(command);
+        Command command = parse(fullCommand);
+        handleCommand(command, ui);
     }
 
     /**
      * The main entry point of the Fiona chatbot.
+     * With {@code --batch [file]}, the commands in the file, or in standard input if no file is given,
+     * are run with their changes saved together. The {@code fiona.batchSaveInterval} system property
+     * sets the number of changes after which they are saved in the middle of a batch.
+     * With {@code --server [address]}, the chatbot serves many clients over a socket instead.
      *
      * @param args Command-line arguments.
      */
     public static void main(String... args) {
-        new Fiona("./data/fiona.txt").run();
+        Fiona fiona = new Fiona("./data/fiona.txt");
+        if (args.length > 0 && args[0].equals("--server")) {
+            serve(fiona, args.length > 1 ? args[1] : null);
+            return;
+        }
+        if (args.length == 0 || !args[0].equals("--batch")) {
+            fiona.run();
+            return;
+        }
+
+        int saveInterval = Integer.getInteger("fiona.batchSaveInterval", 0);
+        try (BufferedReader input = args.length > 1
+                ? Files.newBufferedReader(Paths.get(args[1]))
+                : new BufferedReader(new InputStreamReader(System.in))) {
+            fiona.runBatch(input, System.out, saveInterval);
+        } catch (IOException e) {
+            System.err.println("Error running batch: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void serve(Fiona fiona, String address) {
+        System.out.print(fiona.getWelcomeMessage());
+        try (FionaServer server = new FionaServer(fiona, FionaServer.parseAddress(address))) {
+            System.out.println("Serving on " + server.getAddress());
+            server.serve();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error running server: " + e.getMessage());
+            System.exit(1);
+        }
     }
 
     public String getResponse(String input) {
         try {
             // Parse the command first
-            Command command = Parser.parse(input);
+            Command command = parse(input);
             if (command.getAction() == Action.BYE) {
-                String farewell = ui.getMessage();
-                // Exit the JavaFX application
-                Platform.exit();
-                return farewell;
+                awaitSaved();
+                // The GUI closes itself once it sees that the chatbot is finished.
+                isFinished = true;
+                return ui.getMessage();
             } else {
-                handleCommand(command);
+                handleCommand(command, ui);
             }
         } catch (FionaException | IOException e) {
             ui.showMessage(e.getMessage());
@@ -417,7 +763,26 @@ public class Fiona {
     }
 
 
+    /**
+     * Returns the metrics of the commands run by this chatbot.
+     *
+     * @return The command metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     public String getWelcomeMessage() {
         return ui.getMessage();
     }
+
+    /**
+     * Returns whether the "bye" command has been given through {@link #getResponse(String)}, after which the
+     * changes are saved and the caller should close.
+     *
+     * @return {@code true} if the chatbot is finished, {@code false} otherwise.
+     */
+    public boolean isFinished() {
+        return isFinished;
+    }
 }
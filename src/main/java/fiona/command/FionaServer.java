@@ -0,0 +1,179 @@
+package fiona.command;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code FionaServer} class lets many clients use one {@code Fiona} chatbot at the same time over
+ * a TCP or Unix domain socket. Every connection is a session with its own thread and its own {@code Ui},
+ * while all sessions share the chatbot's task list and storage.
+ *
+ * <p>Clients send one command per line. The server replies to each command with its output followed by
+ * an empty line, and closes the connection after "bye".
+ */
+public class FionaServer implements Closeable {
+    /** The TCP port used when no address is given. */
+    public static final int DEFAULT_PORT = 4242;
+
+    private static final String UNIX_PREFIX = "unix:";
+
+    private final Fiona fiona;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService sessions;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+
+    /** The path of the Unix domain socket, or {@code null} when listening on TCP. */
+    private final Path socketPath;
+
+    /**
+     * Constructs a {@code FionaServer} listening on the given address.
+     *
+     * @param fiona The chatbot that runs the commands of every session.
+     * @param address The TCP or Unix domain socket address to listen on.
+     * @throws IOException If the server cannot listen on the address.
+     */
+    public FionaServer(Fiona fiona, SocketAddress address) throws IOException {
+        this.fiona = fiona;
+        if (address instanceof UnixDomainSocketAddress) {
+            socketPath = ((UnixDomainSocketAddress) address).getPath();
+            Files.deleteIfExists(socketPath);
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            socketPath = null;
+            serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+        sessions = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fiona-session-" + sessionCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Parses a server address given on the command line.
+     * The address is either "unix:PATH" for a Unix domain socket, or "[HOST:]PORT" for TCP, where the host
+     * defaults to the loopback address so that the server is only reachable from this machine.
+     *
+     * @param address The address to parse, or {@code null} for the default TCP port.
+     * @return The parsed socket address.
+     * @throws IllegalArgumentException If the port is not a valid number.
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (address == null) {
+            return new InetSocketAddress("localhost", DEFAULT_PORT);
+        }
+        if (address.startsWith(UNIX_PREFIX)) {
+            return UnixDomainSocketAddress.of(address.substring(UNIX_PREFIX.length()));
+        }
+        int colon = address.lastIndexOf(':');
+        String host = colon < 0 ? "localhost" : address.substring(0, colon);
+        return new InetSocketAddress(host, Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    /**
+     * Returns the address the server is listening on, including the actual port if port 0 was requested.
+     *
+     * @return The local address of the server.
+     * @throws IOException If the address cannot be read.
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is closed, running each session on its own thread.
+     *
+     * @throws IOException If an error occurs while accepting a connection.
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel client;
+            try {
+                client = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            sessions.execute(() -> runSession(client));
+        }
+    }
+
+    /**
+     * Runs the commands of one client until it disconnects or says "bye".
+     */
+    private void runSession(SocketChannel client) {
+        try (client;
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(client), StandardCharsets.UTF_8));
+                Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(client), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(writer)) {
+            Ui ui = new Ui(reader);
+            ui.setOutput(out);
+            ui.showWelcome();
+            reply(out, ui);
+
+            String fullCommand;
+            while ((fullCommand = ui.readCommand()) != null) {
+                if (!fiona.runLine(fullCommand, ui)) {
+                    break;
+                }
+                try {
+                    // Sessions share the data, so a change is only confirmed once it is saved.
+                    fiona.awaitSaved();
+                } catch (IOException e) {
+                    ui.showMessage("Error saving tasks: " + e.getMessage());
+                }
+                reply(out, ui);
+            }
+        } catch (ClosedByInterruptException e) {
+            // The server was closed while the session was waiting for a command.
+        } catch (IOException e) {
+            System.err.println("Session ended with an error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ends a reply with an empty line, after the rest of its output that is still in the {@code Ui}.
+     */
+    private static void reply(PrintWriter out, Ui ui) {
+        ui.flush();
+        out.print('\n');
+        out.flush();
+    }
+
+    /**
+     * Stops accepting connections and ends the sessions that are still running.
+     *
+     * @throws IOException If an error occurs while closing the socket.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        sessions.shutdownNow();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package fiona.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import fiona.task.Task;
+
+/**
+ * The {@code GroupCommitWriter} class saves changes to the task list on a background thread, so that
+ * commands do not wait for the disk. Changes queued while a save is in progress are saved together by
+ * the next one, with a single {@code Storage} call and so at most one forced write.
+ *
+ * <p>The writer shares the lock that guards the task list. Changes are queued while holding it, and the
+ * writer holds it while taking the queued changes, so every save sees exactly the task list that its changes
+ * lead to. A snapshot of the task list is only taken if the save writes the whole list, since copying it
+ * would keep commands waiting on the lock for as long as the list is long.
+ */
+final class GroupCommitWriter {
+    private final Storage storage;
+    private final Metrics metrics;
+    private final Object lock;
+    private final Supplier<List<Task>> snapshot;
+
+    /** The changes waiting for the next save. */
+    private List<TaskChange> queued = new ArrayList<>();
+
+    /** Whether the next save has to rewrite the whole task list. */
+    private boolean isFullSaveQueued;
+
+    /** Whether the next save has to rewrite the whole task list because an earlier one failed. */
+    private boolean isFullSaveNeeded;
+
+    /** Completes once the queued changes are saved. */
+    private CompletableFuture<Void> nextSave = new CompletableFuture<>();
+
+    /** Completes once the save in progress, if any, is finished. */
+    private CompletableFuture<Void> currentSave = CompletableFuture.completedFuture(null);
+
+    /** The error of the last failed save, until it is reported. */
+    private Exception failure;
+
+    private Thread thread;
+
+    /**
+     * Constructs a {@code GroupCommitWriter} for a task list.
+     *
+     * @param storage The storage to save the changes to.
+     * @param metrics The metrics to record the time of each save in.
+     * @param lock The lock that guards the task list.
+     * @param snapshot Returns a snapshot of the task list, called while holding the lock.
+     */
+    GroupCommitWriter(Storage storage, Metrics metrics, Object lock, Supplier<List<Task>> snapshot) {
+        this.storage = storage;
+        this.metrics = metrics;
+        this.lock = lock;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Queues a change that has just been applied to the task list.
+     * The caller must hold the lock of the task list from applying the change until this returns.
+     *
+     * @param change The change to save.
+     * @return A future that completes once the change is saved.
+     */
+    CompletableFuture<Void> add(TaskChange change) {
+        synchronized (lock) {
+            queued.add(change);
+            return wakeUp();
+        }
+    }
+
+    /**
+     * Queues changes that have just been applied to the task list together, so that they are saved by the
+     * same save. The caller must hold the lock of the task list from applying the changes until this returns.
+     *
+     * @param changes The changes to save, in order.
+     * @return A future that completes once the changes are saved.
+     */
+    CompletableFuture<Void> addAll(List<TaskChange> changes) {
+        synchronized (lock) {
+            queued.addAll(changes);
+            return wakeUp();
+        }
+    }
+
+    /**
+     * Queues a save of the whole task list, which replaces any changes still waiting to be saved.
+     *
+     * @return A future that completes once the task list is saved.
+     */
+    CompletableFuture<Void> addFullSave() {
+        synchronized (lock) {
+            isFullSaveQueued = true;
+            queued.clear();
+            return wakeUp();
+        }
+    }
+
+    /**
+     * Returns a future that completes once every change queued so far is saved.
+     * If the last save failed, the whole task list is saved again.
+     *
+     * @return The future of the last save that is queued or in progress.
+     */
+    CompletableFuture<Void> flush() {
+        synchronized (lock) {
+            if (isFullSaveNeeded) {
+                return addFullSave();
+            }
+            return queued.isEmpty() && !isFullSaveQueued ? currentSave : nextSave;
+        }
+    }
+
+    /**
+     * Returns the error of the last failed save and forgets it, so that it is only reported once.
+     *
+     * @return The error, or {@code null} if no save failed since the last call.
+     */
+    Exception takeFailure() {
+        synchronized (lock) {
+            Exception taken = failure;
+            failure = null;
+            return taken;
+        }
+    }
+
+    private CompletableFuture<Void> wakeUp() {
+        if (thread == null) {
+            thread = new Thread(this::run, "fiona-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        lock.notifyAll();
+        return nextSave;
+    }
+
+    private void run() {
+        while (true) {
+            List<TaskChange> changes;
+            boolean isFullSave;
+            List<Task> tasks;
+            CompletableFuture<Void> save;
+            synchronized (lock) {
+                while (queued.isEmpty() && !isFullSaveQueued) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                changes = queued;
+                queued = new ArrayList<>();
+                isFullSave = isFullSaveQueued || isFullSaveNeeded;
+                isFullSaveQueued = false;
+                isFullSaveNeeded = false;
+                tasks = isFullSave || storage.needsSnapshot(changes.size()) ? snapshot.get() : null;
+                save = nextSave;
+                currentSave = save;
+                nextSave = new CompletableFuture<>();
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (isFullSave) {
+                    storage.save(tasks);
+                } else {
+                    List<Task> savedTasks = tasks;
+                    storage.saveChanges(() -> savedTasks, changes);
+                }
+                metrics.recordSave(System.nanoTime() - start);
+                save.complete(null);
+            } catch (IOException | RuntimeException e) {
+                synchronized (lock) {
+                    // The changes are lost from storage, so the next save rewrites everything to recover.
+                    failure = e;
+                    isFullSaveNeeded = true;
+                }
+                save.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package fiona.command;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import fiona.task.Task;
+
+/**
+ * The {@code JournalStorage} class stores tasks as a snapshot file plus an append-only journal.
+ * Each change is appended to the journal as one small record, and the journal is replayed on top
+ * of the snapshot when loading. Once the journal grows past a threshold, it is compacted into a
+ * new snapshot on a background thread.
+ *
+ * <p>Compaction first creates an empty temporary snapshot file and then renames the journal aside,
+ * so that {@code load()} can always tell whether the aside journal is already part of the snapshot:
+ * the temporary file only disappears once it has been renamed over the snapshot.
+ */
+public class JournalStorage extends Storage {
+    /** The number of journal records after which the journal is compacted. */
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path compactingPath;
+    private final Path snapshotTempPath;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+
+    /** Forces records that the sync policy declined to force once its interval has elapsed. */
+    private final ScheduledExecutorService syncer;
+
+    private FileChannel journalChannel;
+    private BufferedWriter journal;
+    private int journalSize;
+    private Future<?> pendingCompaction;
+
+    /** Whether records were appended that the sync policy still has to force to disk. */
+    private boolean isSyncDue;
+
+    /**
+     * Constructs a {@code JournalStorage} object with the specified snapshot file path.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     */
+    public JournalStorage(String filePath) {
+        this(filePath, SyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs a {@code JournalStorage} object with the specified snapshot file path and sync policy.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     * @param syncPolicy The policy deciding when journal records are forced to disk.
+     */
+    public JournalStorage(String filePath, SyncPolicy syncPolicy) {
+        this(filePath, DEFAULT_COMPACTION_THRESHOLD, syncPolicy);
+    }
+
+    /**
+     * Constructs a {@code JournalStorage} object with the specified snapshot file path and compaction threshold.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     * @param compactionThreshold The number of journal records after which the journal is compacted.
+     */
+    public JournalStorage(String filePath, int compactionThreshold) {
+        this(filePath, compactionThreshold, SyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs a {@code JournalStorage} object with the specified snapshot file path, compaction threshold
+     * and sync policy.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     * @param compactionThreshold The number of journal records after which the journal is compacted.
+     * @param syncPolicy The policy deciding when journal records are forced to disk.
+     */
+    public JournalStorage(String filePath, int compactionThreshold, SyncPolicy syncPolicy) {
+        super(filePath, syncPolicy);
+        assert compactionThreshold > 0 : "Compaction threshold must be positive";
+        this.snapshotPath = Paths.get(filePath);
+        this.journalPath = Paths.get(filePath + ".journal");
+        this.compactingPath = Paths.get(filePath + ".journal.compacting");
+        this.snapshotTempPath = Paths.get(filePath + ".tmp");
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fiona-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fiona-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads tasks from the snapshot file and replays the journal on top of them.
+     *
+     * @return A list of tasks loaded from the snapshot and journal.
+     * @throws IOException If an error occurs while reading the files.
+     */
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        Throwable compactionFailure = awaitCompaction();
+        if (!Files.deleteIfExists(snapshotTempPath)) {
+            // Without a temporary snapshot, any aside journal was already renamed into the snapshot.
+            Files.deleteIfExists(compactingPath);
+        }
+
+        List<Task> tasks = super.load();
+        Replay replay = new Replay(tasks);
+        journalSize = replay(compactingPath, replay) + replay(journalPath, replay);
+        replay.finish();
+        if (compactionFailure != null) {
+            addLoadError("Journal compaction failed, so its changes were replayed from the journal: "
+                    + compactionFailure.getMessage());
+        }
+        replay.errors.forEach(this::addLoadError);
+        return tasks;
+    }
+
+    /**
+     * Replaces the snapshot with the given tasks and clears the journal.
+     *
+     * @param tasks The list of tasks to save.
+     * @throws IOException If an error occurs while writing to the files.
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws IOException {
+        // A failed compaction kept its aside journal, which this save compacts again, so it is not reported.
+        awaitCompaction();
+        rotateJournal();
+        compact(tasks);
+    }
+
+    /**
+     * Appends a record for the given change to the journal, compacting the journal in the background
+     * once it has grown past the compaction threshold.
+     *
+     * @param tasks The task list after the change was applied.
+     * @param change The change that was applied.
+     * @throws IOException If an error occurs while writing to the journal.
+     */
+    @Override
+    public synchronized void saveChange(TaskList tasks, TaskChange change) throws IOException {
+        saveChanges(tasks, List.of(change));
+    }
+
+    /**
+     * Appends a record for each of the given changes to the journal with a single write, compacting the
+     * journal in the background once it has grown past the compaction threshold.
+     *
+     * @param tasks The task list after the changes were applied.
+     * @param changes The changes that were applied, in order.
+     * @throws IOException If an error occurs while writing to the journal.
+     */
+    @Override
+    public synchronized void saveChanges(TaskList tasks, List<TaskChange> changes) throws IOException {
+        appendChanges(changes, tasks::getTasks);
+    }
+
+    /**
+     * Returns whether saving the given number of changes grows the journal past the compaction threshold,
+     * so that a snapshot of the task list is needed to compact it.
+     *
+     * @param changeCount The number of changes to save.
+     * @return {@code true} if the save compacts the journal.
+     */
+    @Override
+    public synchronized boolean needsSnapshot(int changeCount) {
+        return journalSize + changeCount >= compactionThreshold
+                && (pendingCompaction == null || pendingCompaction.isDone());
+    }
+
+    /**
+     * Appends a record for each of the given changes to the journal with a single write, compacting the
+     * journal into the supplied snapshot once it has grown past the compaction threshold. Without a
+     * snapshot, compaction waits for a later save.
+     *
+     * @param tasks Supplies the snapshot of the task list after the changes were applied, or {@code null}.
+     * @param changes The changes that were applied, in order.
+     * @throws IOException If an error occurs while writing to the journal.
+     */
+    @Override
+    public synchronized void saveChanges(Supplier<List<Task>> tasks, List<TaskChange> changes) throws IOException {
+        appendChanges(changes, tasks);
+    }
+
+    /**
+     * Appends the records of the changes, taking a snapshot of the tasks only if the journal is compacted.
+     */
+    private void appendChanges(List<TaskChange> changes, Supplier<List<Task>> tasks) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            if (snapshotPath.getParent() != null) {
+                Files.createDirectories(snapshotPath.getParent());
+            }
+            journalChannel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            journal = new BufferedWriter(Channels.newWriter(journalChannel, StandardCharsets.UTF_8));
+        }
+        StorageSaveEvent event = new StorageSaveEvent(journalPath.toString(), StorageSaveEvent.JOURNAL);
+        event.begin();
+        long sizeBefore = event.isEnabled() ? journalChannel.size() : 0;
+        for (TaskChange change : changes) {
+            journal.write(serializeChange(change));
+            journal.newLine();
+        }
+        journal.flush();
+        boolean sync = getSyncPolicy().shouldSync();
+        if (sync) {
+            journalChannel.force(false);
+            isSyncDue = false;
+        } else {
+            scheduleSync();
+        }
+        journalSize += changes.size();
+        if (event.isEnabled()) {
+            event.setBytesWritten(journalChannel.size() - sizeBefore);
+            event.setTaskCount(changes.size());
+            event.setSynced(sync);
+            event.commit();
+        }
+
+        if (journalSize >= compactionThreshold && !Files.exists(compactingPath)) {
+            List<Task> snapshot = tasks.get();
+            if (snapshot == null) {
+                return;
+            }
+            rotateJournal();
+            pendingCompaction = compactor.submit(() -> {
+                compact(snapshot);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Returns whether records were appended to the journal that the sync policy still has to force to disk.
+     * With an interval policy, they are forced at the latest once the interval has elapsed.
+     *
+     * @return {@code true} if a force of the journal is due, {@code false} otherwise.
+     */
+    public synchronized boolean isSyncDue() {
+        return isSyncDue;
+    }
+
+    /**
+     * Schedules forcing the journal once the interval of the sync policy has elapsed, if the policy forces
+     * declined writes later and no force is due yet.
+     */
+    private void scheduleSync() {
+        long delayMillis = getSyncPolicy().getSyncDelayMillis();
+        if (delayMillis >= 0 && !isSyncDue) {
+            isSyncDue = true;
+            syncer.schedule(this::syncJournal, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forces the records that are due to disk, unless a later append or rotation already did.
+     */
+    private synchronized void syncJournal() {
+        if (!isSyncDue || journalChannel == null) {
+            return;
+        }
+        try {
+            journalChannel.force(false);
+            isSyncDue = false;
+            getSyncPolicy().recordSync();
+        } catch (IOException e) {
+            // The interval has elapsed, so the next append forces the journal itself and reports the error.
+        }
+    }
+
+    /**
+     * Moves the current journal aside so that new records go to a fresh journal while a snapshot is written.
+     */
+    private void rotateJournal() throws IOException {
+        if (journal != null) {
+            if (isSyncDue) {
+                journalChannel.force(false);
+                isSyncDue = false;
+            }
+            journal.close();
+            journal = null;
+            journalChannel = null;
+        }
+        Files.deleteIfExists(snapshotTempPath);
+        if (snapshotPath.getParent() != null) {
+            Files.createDirectories(snapshotPath.getParent());
+        }
+        Files.createFile(snapshotTempPath);
+        if (Files.exists(journalPath) && Files.exists(compactingPath)) {
+            // A failed compaction left its journal aside, so keep those records ahead of the current ones.
+            Files.write(compactingPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+            Files.delete(journalPath);
+        } else if (Files.exists(journalPath)) {
+            Files.move(journalPath, compactingPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        journalSize = 0;
+    }
+
+    /**
+     * Writes the given tasks to a new snapshot and discards the journal that was moved aside.
+     * The snapshot and its rename are forced to disk first, so a crash cannot lose both.
+     */
+    private void compact(List<Task> tasks) throws IOException {
+        writeSnapshot(tasks, snapshotTempPath, snapshotPath);
+        Files.deleteIfExists(compactingPath);
+    }
+
+    /**
+     * Waits for a background compaction, if any, to finish.
+     * A failed compaction keeps its aside journal, so its records are replayed or compacted again later.
+     *
+     * @return The reason the compaction failed, or {@code null} if it succeeded or there was none.
+     * @throws IOException If interrupted while waiting.
+     */
+    private Throwable awaitCompaction() throws IOException {
+        if (pendingCompaction == null) {
+            return null;
+        }
+        try {
+            pendingCompaction.get();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compacting the journal", e);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } finally {
+            pendingCompaction = null;
+        }
+    }
+
+    /**
+     * Applies every record of the given journal file to the task list.
+     *
+     * @return The number of records read.
+     */
+    private int replay(Path path, Replay replay) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                replay.apply(line);
+                ++records;
+            }
+        }
+        return records;
+    }
+
+    private String serializeChange(TaskChange change) {
+        switch (change.getType()) {
+        case ADD:
+            return "A | " + serializeTask(change.getTask());
+        case MARK:
+            return "M | #" + change.getTask().getId();
+        case UNMARK:
+            return "U | #" + change.getTask().getId();
+        case DELETE:
+            return "X | #" + change.getTask().getId();
+        case INSERT:
+            return "I | " + change.getIndex() + " | " + serializeTask(change.getTask());
+        default:
+            throw new AssertionError("Unknown change type: " + change.getType());
+        }
+    }
+
+    /**
+     * Applies journal records to a loaded task list. Records refer to tasks by ID, and deleted tasks are
+     * removed in a single pass at the end. Records written before IDs were stored refer to positions instead.
+     */
+    private final class Replay {
+        private final List<Task> tasks;
+        private final List<String> errors = new ArrayList<>();
+        private final Map<Integer, Task> tasksById = new HashMap<>();
+        private final Set<Task> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Replay(List<Task> tasks) {
+            this.tasks = tasks;
+            for (Task task : tasks) {
+                tasksById.put(task.getId(), task);
+            }
+        }
+
+        void apply(String line) {
+            String[] parts = line.split(" \\| ", 2);
+            if (parts.length < 2) {
+                errors.add("Skipping malformed journal record: " + line);
+                return;
+            }
+
+            if (parts[0].equals("A")) {
+                Task task = parseTask(parts[1], errors);
+                if (task != null) {
+                    tasks.add(task);
+                    tasksById.put(task.getId(), task);
+                }
+                return;
+            }
+            if (parts[0].equals("I")) {
+                insert(line, parts[1]);
+                return;
+            }
+
+            Task task;
+            try {
+                task = parts[1].startsWith("#")
+                        ? tasksById.get(Integer.parseInt(parts[1].substring(1)))
+                        : taskAt(Integer.parseInt(parts[1]));
+            } catch (NumberFormatException e) {
+                errors.add("Skipping malformed journal record: " + line);
+                return;
+            }
+            if (task == null) {
+                errors.add("Skipping journal record for a missing task: " + line);
+                return;
+            }
+
+            switch (parts[0]) {
+            case "M":
+                task.setDone();
+                break;
+            case "U":
+                task.setUndone();
+                break;
+            case "X":
+                tasksById.remove(task.getId(), task);
+                deleted.add(task);
+                break;
+            default:
+                errors.add("Unknown journal record type: " + parts[0] + " in line: " + line);
+                break;
+            }
+        }
+
+        /**
+         * Puts a task back at the position given before it, after removing the tasks deleted so far.
+         */
+        private void insert(String line, String record) {
+            String[] parts = record.split(" \\| ", 2);
+            int index;
+            try {
+                index = Integer.parseInt(parts[0]);
+            } catch (NumberFormatException e) {
+                index = -1;
+            }
+            if (parts.length < 2 || index < 0) {
+                errors.add("Skipping malformed journal record: " + line);
+                return;
+            }
+            Task task = parseTask(parts[1], errors);
+            if (task == null) {
+                return;
+            }
+            finish();
+            tasks.add(Math.min(index, tasks.size()), task);
+            tasksById.put(task.getId(), task);
+        }
+
+        /**
+         * Returns the task at the given position, or {@code null} if there is none.
+         */
+        private Task taskAt(int index) {
+            finish();
+            return index >= 0 && index < tasks.size() ? tasks.get(index) : null;
+        }
+
+        /**
+         * Removes the deleted tasks from the list.
+         */
+        void finish() {
+            if (!deleted.isEmpty()) {
+                tasks.removeIf(deleted::contains);
+                deleted.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package fiona.command;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import fiona.task.Task;
+
+/**
+ * The {@code KeywordIndex} class is an inverted index from every three-character substring (trigram)
+ * of a task name to the tasks containing it. A keyword search only checks the tasks that contain every
+ * trigram of the keyword, so its cost depends on the number of candidates rather than the list size.
+ */
+final class KeywordIndex {
+    /** The length of the substrings that are indexed, and so the shortest keyword the index can answer. */
+    static final int GRAM_LENGTH = 3;
+
+    /** Posting sets keep insertion order, so matches are returned in the order they were added. */
+    private final Map<Long, Set<Task>> postings = new HashMap<>();
+
+    /**
+     * Constructs a {@code KeywordIndex} containing the given tasks.
+     *
+     * @param tasks The tasks to index.
+     */
+    KeywordIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        String name = task.getName().toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            postings.computeIfAbsent(gramAt(name, i), gram -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        String name = task.getName().toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            Long gram = gramAt(name, i);
+            Set<Task> posting = postings.get(gram);
+            if (posting != null && posting.remove(task) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose name contains the given keyword, ignoring case.
+     *
+     * @param keyword The keyword to search for, at least {@link #GRAM_LENGTH} characters long.
+     * @return The matching tasks.
+     */
+    List<Task> find(String keyword) {
+        assert keyword.length() >= GRAM_LENGTH : "Keyword is too short for the trigram index";
+        String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+        List<Set<Task>> keywordPostings = new ArrayList<>();
+        Set<Task> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerKeyword.length(); i++) {
+            Set<Task> posting = postings.get(gramAt(lowerKeyword, i));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            keywordPostings.add(posting);
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        List<Task> matches = new ArrayList<>();
+        for (Task task : smallest) {
+            if (isInAll(task, keywordPostings) && containsIgnoreCase(task.getName(), keyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns whether the text contains the keyword, ignoring case, without allocating.
+     *
+     * @param text The text to search in.
+     * @param keyword The keyword to search for.
+     * @return {@code true} if the keyword occurs in the text, {@code false} otherwise.
+     */
+    static boolean containsIgnoreCase(String text, String keyword) {
+        int last = text.length() - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInAll(Task task, List<Set<Task>> keywordPostings) {
+        for (Set<Task> posting : keywordPostings) {
+            if (!posting.contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Long gramAt(String text, int index) {
+        return (long) text.charAt(index) << 32 | (long) text.charAt(index + 1) << 16 | text.charAt(index + 2);
+    }
+}
@@ -0,0 +1,52 @@
+package fiona.command;
+
+/**
+ * The {@code LatencySummary} class is a snapshot of the count and percentiles of a {@code LatencyHistogram},
+ * with durations in microseconds.
+ */
+public class LatencySummary {
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    /**
+     * Constructs a {@code LatencySummary} of the current contents of a histogram.
+     *
+     * @param histogram The histogram to summarize.
+     */
+    public LatencySummary(LatencyHistogram histogram) {
+        this.count = histogram.getCount();
+        this.meanMicros = histogram.getMean() / 1000;
+        this.p50Micros = histogram.getPercentile(50) / 1000.0;
+        this.p99Micros = histogram.getPercentile(99) / 1000.0;
+        this.maxMicros = histogram.getMax() / 1000.0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d run(s), p50 %.1f us, p99 %.1f us, max %.1f us", count, p50Micros, p99Micros,
+                maxMicros);
+    }
+}
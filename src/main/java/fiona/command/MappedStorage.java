@@ -0,0 +1,92 @@
+package fiona.command;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import fiona.task.Task;
+
+/**
+ * The {@code MappedStorage} class stores tasks in the binary format and loads them by memory-mapping the file.
+ * Loading only reads the file header and trailer, each task is decoded the first time it is used, and overdue
+ * tasks are found through the record index, so startup time and heap usage stay small however many tasks
+ * are stored.
+ *
+ * <p>Saving writes a new file that atomically replaces the mapped one. The old mapping stays readable
+ * until it is garbage collected, which requires a platform that allows replacing a mapped file.
+ */
+public class MappedStorage extends Storage {
+
+    /**
+     * Constructs a {@code MappedStorage} object with the specified file path and sync policy.
+     *
+     * @param filePath The path to the binary file where tasks are stored.
+     * @param syncPolicy The policy deciding when appended journal records are forced to disk.
+     */
+    public MappedStorage(String filePath, SyncPolicy syncPolicy) {
+        super(filePath, syncPolicy);
+        setFormat(StorageFormat.BINARY);
+    }
+
+    /**
+     * Maps the storage file and returns a list that decodes its tasks on demand.
+     * A text file is loaded eagerly instead, and is written back in the binary format on the next save.
+     *
+     * @return A list of the tasks in the file.
+     * @throws IOException If an error occurs while reading the file, or the file is not a supported binary file.
+     */
+    @Override
+    public List<Task> load() throws IOException {
+        File file = new File(getFilePath());
+        if (!file.exists() || detectFormat(file) != StorageFormat.BINARY) {
+            List<Task> tasks = super.load();
+            setFormat(StorageFormat.BINARY);
+            return tasks;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Task file is too large to map: " + fileSize + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            short version = fileSize >= Integer.BYTES + Short.BYTES ? buffer.getShort(Integer.BYTES) : 0;
+            if (version == BinaryTaskFormat.VERSION_WITHOUT_IDS || version == BinaryTaskFormat.VERSION_WITHOUT_INDEX) {
+                // Older files lack IDs or the record index, so they are loaded eagerly and upgraded on the next save.
+                return super.load();
+            }
+            if (fileSize < BinaryTaskFormat.HEADER_SIZE) {
+                throw new IOException("Corrupt binary task file: missing header");
+            }
+            if (version != BinaryTaskFormat.VERSION) {
+                throw new IOException("Unsupported binary task file version: " + version);
+            }
+            Task.reserveIds(buffer.getInt(BinaryTaskFormat.LAST_ID_OFFSET));
+            int count = buffer.getInt(Integer.BYTES + Short.BYTES);
+            if (count < 0) {
+                throw new IOException("Corrupt binary task file: negative task count");
+            }
+            return new MappedTaskList(buffer, count);
+        }
+    }
+
+    @Override
+    void writeTasks(List<Task> tasks, File file) throws IOException {
+        if (!(tasks instanceof MappedTaskList)) {
+            super.writeTasks(tasks, file);
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(file);
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            ((MappedTaskList) tasks).writeTo(data);
+            data.flush();
+            out.getFD().sync();
+        }
+    }
+}
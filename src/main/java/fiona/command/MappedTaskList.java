@@ -0,0 +1,510 @@
+package fiona.command;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+import fiona.task.Deadline;
+import fiona.task.Event;
+import fiona.task.Task;
+import fiona.task.Todo;
+
+/**
+ * The {@code MappedTaskList} class is a list of tasks backed by a memory-mapped binary task file.
+ * A record is only decoded into a {@code Task} the first time it is accessed, and the decoded task is
+ * kept so that later changes to it are not lost. Records that were never accessed are copied to the
+ * new file as raw bytes when the list is saved.
+ *
+ * <p>The list is kept as pieces, each either a run of consecutive records or a single task added in
+ * memory, so its own bookkeeping grows with the number of changes rather than the number of tasks.
+ * Overdue tasks are found through the record index of the file, which orders the deadlines and events
+ * by their end time.
+ *
+ * <p>Read-only snapshots of the list share its decoded tasks, so a record is decoded into the same
+ * {@code Task} whichever list accesses it first.
+ */
+final class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+    /** The offset of the task ID within a record. */
+    private static final int ID_OFFSET = Byte.BYTES + Byte.BYTES;
+
+    /** The offset of the name length within a record. */
+    private static final int NAME_LENGTH_OFFSET = ID_OFFSET + Integer.BYTES;
+
+    /** The size of the type tag, done flag, ID and name length that start every record. */
+    private static final int RECORD_PREFIX_SIZE = NAME_LENGTH_OFFSET + Integer.BYTES;
+
+    /** The records of the mapped file, shared with every snapshot of this list. */
+    private final Records shared;
+
+    /** Whether this list is a snapshot, which cannot be changed. */
+    private final boolean isReadOnly;
+
+    /** The pieces that make up the list, in order. */
+    private List<Piece> pieces;
+
+    /** The position of the first element of each piece. */
+    private int[] starts;
+
+    private int size;
+
+    /** The number of entries at the start of the expiry order that have already been purged. */
+    private int purgedExpiries;
+
+    /**
+     * Constructs a {@code MappedTaskList} over the records of a mapped binary task file.
+     *
+     * @param buffer The mapped file, including its header and record index.
+     * @param recordCount The number of records in the file.
+     * @throws IOException If the record index of the file is missing or corrupt.
+     */
+    MappedTaskList(ByteBuffer buffer, int recordCount) throws IOException {
+        this.shared = new Records(buffer, recordCount);
+        this.isReadOnly = false;
+        this.pieces = new ArrayList<>();
+        if (recordCount > 0) {
+            pieces.add(new Piece(0, recordCount, null));
+        }
+        reindex();
+    }
+
+    private MappedTaskList(MappedTaskList list) {
+        this.shared = list.shared;
+        this.isReadOnly = true;
+        this.pieces = new ArrayList<>(list.pieces);
+        this.starts = Arrays.copyOf(list.starts, list.pieces.size());
+        this.size = list.size;
+    }
+
+    /**
+     * Returns a read-only copy of the list as it is now. Elements that have not been accessed yet are
+     * still decoded only when first accessed, through either list.
+     *
+     * @return The snapshot of the list.
+     */
+    MappedTaskList snapshot() {
+        return isReadOnly ? this : new MappedTaskList(this);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        int p = pieceAt(index);
+        Piece piece = pieces.get(p);
+        return piece.task != null ? piece.task : shared.task(piece.firstRecord + index - starts[p]);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkWritable();
+        Task previous = get(index);
+        int p = splitAt(index);
+        splitAt(index + 1);
+        pieces.set(p, new Piece(-1, 1, task));
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        checkWritable();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        pieces.add(splitAt(index), new Piece(-1, 1, task));
+        reindex();
+        ++modCount;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkWritable();
+        Task removed = get(index);
+        int p = splitAt(index);
+        splitAt(index + 1);
+        pieces.remove(p);
+        reindex();
+        ++modCount;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        checkWritable();
+        List<Piece> kept = new ArrayList<>(pieces.size());
+        int removed = 0;
+        for (Piece piece : pieces) {
+            if (piece.task != null) {
+                if (filter.test(piece.task)) {
+                    ++removed;
+                } else {
+                    kept.add(piece);
+                }
+                continue;
+            }
+            int runStart = piece.firstRecord;
+            int runEnd = piece.firstRecord + piece.length;
+            for (int record = runStart; record < runEnd; record++) {
+                if (filter.test(shared.task(record))) {
+                    addRun(kept, runStart, record);
+                    runStart = record + 1;
+                    ++removed;
+                }
+            }
+            addRun(kept, runStart, runEnd);
+        }
+        return replacePieces(kept, removed) > 0;
+    }
+
+    /**
+     * Removes every deadline and event that ended before the given time.
+     * Overdue records are looked up in the expiry order of the file, so only tasks added in memory and
+     * the overdue records themselves are checked, and none of them are decoded.
+     *
+     * @param now The current time.
+     * @return The number of tasks removed.
+     */
+    int removeExpired(LocalDateTime now) {
+        checkWritable();
+        int expiredEnd = shared.expiredBefore(now, purgedExpiries);
+        int[] expired = new int[expiredEnd - purgedExpiries];
+        for (int i = 0; i < expired.length; i++) {
+            expired[i] = shared.expiringRecord(purgedExpiries + i);
+        }
+        Arrays.sort(expired);
+        purgedExpiries = expiredEnd;
+
+        List<Piece> kept = new ArrayList<>(pieces.size());
+        int removed = 0;
+        for (Piece piece : pieces) {
+            if (piece.task != null) {
+                if (isExpired(piece.task, now)) {
+                    ++removed;
+                } else {
+                    kept.add(piece);
+                }
+                continue;
+            }
+            int runStart = piece.firstRecord;
+            int runEnd = piece.firstRecord + piece.length;
+            int i = Arrays.binarySearch(expired, runStart);
+            for (i = i < 0 ? -i - 1 : i; i < expired.length && expired[i] < runEnd; i++) {
+                addRun(kept, runStart, expired[i]);
+                runStart = expired[i] + 1;
+                ++removed;
+            }
+            addRun(kept, runStart, runEnd);
+        }
+        return replacePieces(kept, removed);
+    }
+
+    /**
+     * Writes the list in the binary format, copying records that were never accessed as raw bytes.
+     *
+     * @param out The stream to write to, which must not have been written to yet.
+     * @throws IOException If an error occurs while writing.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        BinaryTaskFormat.writeHeader(size, out);
+        BinaryTaskFormat.RecordIndex index = new BinaryTaskFormat.RecordIndex(size);
+        byte[] scratch = new byte[256];
+        for (Piece piece : pieces) {
+            if (piece.task != null) {
+                index.add(out.size(), piece.task);
+                BinaryTaskFormat.writeTask(piece.task, out);
+                continue;
+            }
+            for (int record = piece.firstRecord; record < piece.firstRecord + piece.length; record++) {
+                Task task = shared.decodedTask(record);
+                if (task != null) {
+                    index.add(out.size(), task);
+                    BinaryTaskFormat.writeTask(task, out);
+                    continue;
+                }
+                int offset = shared.offsetOf(record);
+                int length = shared.recordLength(offset);
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                index.add(out.size(), shared.hasEnd(offset), shared.endMinute(offset));
+                shared.buffer.get(offset, scratch, 0, length);
+                out.write(scratch, 0, length);
+            }
+        }
+        index.writeTo(out);
+    }
+
+    /**
+     * Returns the index of the piece holding the element at the given position.
+     */
+    private int pieceAt(int index) {
+        int p = Arrays.binarySearch(starts, 0, pieces.size(), index);
+        return p >= 0 ? p : -p - 2;
+    }
+
+    /**
+     * Splits the pieces so that one starts at the given position, and returns its index.
+     * The index is the number of pieces if the position is the end of the list.
+     */
+    private int splitAt(int index) {
+        if (index == size) {
+            return pieces.size();
+        }
+        int p = pieceAt(index);
+        int offset = index - starts[p];
+        if (offset == 0) {
+            return p;
+        }
+        Piece piece = pieces.get(p);
+        pieces.set(p, new Piece(piece.firstRecord, offset, null));
+        pieces.add(p + 1, new Piece(piece.firstRecord + offset, piece.length - offset, null));
+        reindex();
+        return p + 1;
+    }
+
+    /**
+     * Replaces the pieces with the given ones if any elements were removed, returning the number removed.
+     */
+    private int replacePieces(List<Piece> kept, int removed) {
+        if (removed > 0) {
+            pieces = kept;
+            reindex();
+            ++modCount;
+        }
+        return removed;
+    }
+
+    /**
+     * Recomputes the position of every piece and the size of the list.
+     */
+    private void reindex() {
+        if (starts == null || starts.length < pieces.size()) {
+            starts = new int[Math.max(4, pieces.size() + (pieces.size() >> 1))];
+        }
+        size = 0;
+        for (int p = 0; p < pieces.size(); p++) {
+            starts[p] = size;
+            size += pieces.get(p).length;
+        }
+    }
+
+    private static void addRun(List<Piece> pieces, int fromRecord, int toRecord) {
+        if (toRecord > fromRecord) {
+            pieces.add(new Piece(fromRecord, toRecord - fromRecord, null));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void checkWritable() {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("A snapshot of the task list cannot be changed");
+        }
+    }
+
+    private static boolean isExpired(Task task, LocalDateTime now) {
+        if (task instanceof Deadline) {
+            return TaskList.isBefore(((Deadline) task).getDeadlineEpochMinute(), now);
+        } else if (task instanceof Event) {
+            return TaskList.isBefore(((Event) task).getToEpochMinute(), now);
+        }
+        return false;
+    }
+
+    /**
+     * A run of consecutive records, or a single task added in memory.
+     */
+    private static final class Piece {
+        /** The first record of the run, or -1 for a task added in memory. */
+        private final int firstRecord;
+        private final int length;
+        /** The task added in memory, or {@code null} for a run of records. */
+        private final Task task;
+
+        Piece(int firstRecord, int length, Task task) {
+            this.firstRecord = firstRecord;
+            this.length = length;
+            this.task = task;
+        }
+    }
+
+    /**
+     * The records of a mapped file and the tasks decoded from them so far. Records are decoded under the
+     * lock of this object, so that concurrent readers of a list and its snapshots always see the same
+     * {@code Task} for a record. Decoded tasks are kept in pages that are only allocated once one of
+     * their records is used.
+     */
+    private static final class Records {
+        private static final int PAGE_SIZE = 1024;
+
+        private final ByteBuffer buffer;
+        private final int recordCount;
+        private final int offsetsStart;
+        private final int expiriesStart;
+        private final int expiryCount;
+        private final Task[][] decodedPages;
+
+        Records(ByteBuffer buffer, int recordCount) throws IOException {
+            this.buffer = buffer;
+            this.recordCount = recordCount;
+            int trailer = buffer.limit() - BinaryTaskFormat.TRAILER_SIZE;
+            if (trailer < BinaryTaskFormat.HEADER_SIZE || buffer.getInt(trailer + Integer.BYTES)
+                    != BinaryTaskFormat.MAGIC) {
+                throw new IOException("Corrupt binary task file: missing record index");
+            }
+            this.offsetsStart = buffer.getInt(trailer);
+            long expiryCountOffset = offsetsStart + (long) recordCount * Integer.BYTES;
+            if (offsetsStart < BinaryTaskFormat.HEADER_SIZE || expiryCountOffset + Integer.BYTES > trailer) {
+                throw new IOException("Corrupt binary task file: record index is out of bounds");
+            }
+            this.expiryCount = buffer.getInt((int) expiryCountOffset);
+            this.expiriesStart = (int) expiryCountOffset + Integer.BYTES;
+            if (expiryCount < 0 || expiriesStart + (long) expiryCount * Integer.BYTES != trailer) {
+                throw new IOException("Corrupt binary task file: expiry order does not match the record index");
+            }
+            this.decodedPages = new Task[(recordCount + PAGE_SIZE - 1) / PAGE_SIZE][];
+        }
+
+        /**
+         * Returns the task of the given record, decoding it on first use.
+         */
+        synchronized Task task(int record) {
+            Task[] page = decodedPages[record / PAGE_SIZE];
+            if (page == null) {
+                page = new Task[PAGE_SIZE];
+                decodedPages[record / PAGE_SIZE] = page;
+            }
+            if (page[record % PAGE_SIZE] == null) {
+                page[record % PAGE_SIZE] = decode(record);
+            }
+            return page[record % PAGE_SIZE];
+        }
+
+        /**
+         * Returns the task of the given record if it has been decoded, or {@code null} otherwise.
+         */
+        synchronized Task decodedTask(int record) {
+            Task[] page = decodedPages[record / PAGE_SIZE];
+            return page == null ? null : page[record % PAGE_SIZE];
+        }
+
+        /**
+         * Returns the offset of the given record, as stored in the record index.
+         */
+        int offsetOf(int record) {
+            int offset = buffer.getInt(offsetsStart + record * Integer.BYTES);
+            if (offset < BinaryTaskFormat.HEADER_SIZE || offset > offsetsStart - RECORD_PREFIX_SIZE) {
+                throw new IllegalStateException("Corrupt binary task file: record " + record + " is out of bounds");
+            }
+            return offset;
+        }
+
+        int recordLength(int offset) {
+            int nameLength = buffer.getInt(offset + NAME_LENGTH_OFFSET);
+            switch (buffer.get(offset)) {
+            case BinaryTaskFormat.DEADLINE_TAG:
+                return RECORD_PREFIX_SIZE + nameLength + Long.BYTES;
+            case BinaryTaskFormat.EVENT_TAG:
+                return RECORD_PREFIX_SIZE + nameLength + 2 * Long.BYTES;
+            default:
+                return RECORD_PREFIX_SIZE + nameLength;
+            }
+        }
+
+        /**
+         * Returns whether the record at the given offset is a deadline or an event.
+         */
+        boolean hasEnd(int offset) {
+            byte type = buffer.get(offset);
+            return type == BinaryTaskFormat.DEADLINE_TAG || type == BinaryTaskFormat.EVENT_TAG;
+        }
+
+        /**
+         * Returns the minute since the epoch at which the deadline or event at the given offset ends.
+         */
+        long endMinute(int offset) {
+            int timeOffset = offset + RECORD_PREFIX_SIZE + buffer.getInt(offset + NAME_LENGTH_OFFSET);
+            switch (buffer.get(offset)) {
+            case BinaryTaskFormat.DEADLINE_TAG:
+                return buffer.getLong(timeOffset);
+            case BinaryTaskFormat.EVENT_TAG:
+                return buffer.getLong(timeOffset + Long.BYTES);
+            default:
+                return 0;
+            }
+        }
+
+        /**
+         * Returns the record at the given position of the expiry order.
+         */
+        int expiringRecord(int position) {
+            int record = buffer.getInt(expiriesStart + position * Integer.BYTES);
+            if (record < 0 || record >= recordCount) {
+                throw new IllegalStateException("Corrupt binary task file: expiry order names record " + record);
+            }
+            return record;
+        }
+
+        /**
+         * Returns the end of the overdue entries of the expiry order, searching from the given position.
+         */
+        int expiredBefore(LocalDateTime now, int from) {
+            int low = from;
+            int high = expiryCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (TaskList.isBefore(endMinute(offsetOf(expiringRecord(mid))), now)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private Task decode(int record) {
+            int offset = offsetOf(record);
+            byte type = buffer.get(offset);
+            boolean isDone = buffer.get(offset + 1) != 0;
+            int id = buffer.getInt(offset + ID_OFFSET);
+            int nameLength = buffer.getInt(offset + NAME_LENGTH_OFFSET);
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(offset + RECORD_PREFIX_SIZE, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            int timeOffset = offset + RECORD_PREFIX_SIZE + nameLength;
+
+            Task task;
+            switch (type) {
+            case BinaryTaskFormat.DEADLINE_TAG:
+                task = Deadline.restore(name, Task.fromEpochMinute(buffer.getLong(timeOffset)), isDone, id);
+                break;
+            case BinaryTaskFormat.EVENT_TAG:
+                task = Event.restore(name, Task.fromEpochMinute(buffer.getLong(timeOffset)),
+                        Task.fromEpochMinute(buffer.getLong(timeOffset + Long.BYTES)), isDone, id);
+                break;
+            default:
+                task = new Todo(name, id);
+                if (isDone) {
+                    task.setDone();
+                }
+                break;
+            }
+            return task;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package fiona.command;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The {@code Metrics} class counts the commands Fiona runs and records how long parsing, executing and
+ * saving them take. Recording only updates counters, so the metrics are always on.
+ */
+public class Metrics implements MetricsMXBean {
+    /** The name the metrics are registered under with the platform MBean server. */
+    public static final String OBJECT_NAME = "fiona:type=Metrics";
+
+    private final long startNanos = System.nanoTime();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+    private final Map<Action, LatencyHistogram> executeLatencies = new EnumMap<>(Action.class);
+    private final Map<Action, LongAdder> errorCounts = new EnumMap<>(Action.class);
+
+    /**
+     * Constructs an empty {@code Metrics} object.
+     */
+    public Metrics() {
+        for (Action action : Action.values()) {
+            executeLatencies.put(action, new LatencyHistogram());
+            errorCounts.put(action, new LongAdder());
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, unless metrics are already registered.
+     *
+     * @return {@code true} if these metrics were registered, {@code false} otherwise.
+     */
+    public boolean register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            return false;
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Records the time taken to parse a command.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordParse(long nanos) {
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * Records the time taken to execute a command. Its change is saved in the background afterwards,
+     * which is recorded separately by {@link #recordSave(long)}.
+     *
+     * @param action The action of the command.
+     * @param nanos The duration in nanoseconds.
+     * @param isSuccessful Whether the command completed without an error.
+     */
+    public void recordExecute(Action action, long nanos, boolean isSuccessful) {
+        executeLatencies.get(action).record(nanos);
+        if (!isSuccessful) {
+            errorCounts.get(action).increment();
+        }
+    }
+
+    /**
+     * Records the time taken to save changes to storage.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordSave(long nanos) {
+        saveLatency.record(nanos);
+    }
+
+    @Override
+    public long getCommandCount() {
+        long count = 0;
+        for (LatencyHistogram histogram : executeLatencies.values()) {
+            count += histogram.getCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getCommandsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? getCommandCount() / seconds : 0;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        errorCounts.forEach((action, count) -> {
+            if (count.sum() > 0) {
+                counts.put(nameOf(action), count.sum());
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public Map<String, LatencySummary> getExecuteLatencies() {
+        Map<String, LatencySummary> latencies = new LinkedHashMap<>();
+        executeLatencies.forEach((action, histogram) -> {
+            if (histogram.getCount() > 0) {
+                latencies.put(nameOf(action), new LatencySummary(histogram));
+            }
+        });
+        return latencies;
+    }
+
+    @Override
+    public LatencySummary getParseLatency() {
+        return new LatencySummary(parseLatency);
+    }
+
+    @Override
+    public LatencySummary getSaveLatency() {
+        return new LatencySummary(saveLatency);
+    }
+
+    /**
+     * Returns the metrics as lines of text for the {@code stats} command.
+     *
+     * @return The lines describing the metrics.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Commands: %d (%.2f per second)", getCommandCount(), getCommandsPerSecond()));
+        Map<String, Long> errors = getErrorCounts();
+        getExecuteLatencies().forEach((action, latency) -> lines.add("  " + action + ": " + latency
+                + ", " + errors.getOrDefault(action, 0L) + " error(s)"));
+        lines.add("Parse: " + getParseLatency());
+        lines.add("Save: " + getSaveLatency());
+        return lines;
+    }
+
+    private static String nameOf(Action action) {
+        return action.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package fiona.command;
+
+import java.util.Map;
+
+/**
+ * The {@code MetricsMXBean} interface exposes Fiona's command metrics over JMX.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns the number of commands run.
+     *
+     * @return The number of commands run.
+     */
+    long getCommandCount();
+
+    /**
+     * Returns the average number of commands run per second since Fiona started.
+     *
+     * @return The command throughput.
+     */
+    double getCommandsPerSecond();
+
+    /**
+     * Returns the number of commands of each action that failed.
+     *
+     * @return The number of failed commands, keyed by action name.
+     */
+    Map<String, Long> getErrorCounts();
+
+    /**
+     * Returns the execution latencies of each action that has been run.
+     *
+     * @return The latency summaries, keyed by action name.
+     */
+    Map<String, LatencySummary> getExecuteLatencies();
+
+    /**
+     * Returns the latency of parsing commands.
+     *
+     * @return The latency summary.
+     */
+    LatencySummary getParseLatency();
+
+    /**
+     * Returns the latency of saving changes to storage.
+     *
+     * @return The latency summary.
+     */
+    LatencySummary getSaveLatency();
+}
@@ -0,0 +1,146 @@
+package fiona.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import fiona.task.Task;
+
+/**
+ * The {@code ParallelTextLoader} class loads a text task file by splitting it into newline-aligned
+ * byte ranges and parsing the ranges on the common fork-join pool. The tasks are returned in the
+ * order they appear in the file.
+ */
+final class ParallelTextLoader {
+    /** The approximate number of bytes parsed by each chunk. */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private ParallelTextLoader() {
+    }
+
+    /**
+     * Returns whether the given file can be loaded in parallel. This requires a charset in which a newline
+     * byte always ends a line, and a file small enough to be mapped.
+     *
+     * @param file The text file to load.
+     * @return {@code true} if the file can be loaded in parallel, {@code false} otherwise.
+     */
+    static boolean canLoad(File file) {
+        Charset charset = Charset.defaultCharset();
+        boolean isNewlineSafe = charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+        return isNewlineSafe && file.length() <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Parses every line of the given text file in parallel.
+     *
+     * @param storage The storage whose line parser is used.
+     * @param file The text file to load.
+     * @param errors The list to add a message to for every skipped line.
+     * @return The tasks in the file, in file order.
+     * @throws IOException If an error occurs while reading the file.
+     */
+    static List<Task> load(Storage storage, File file, List<String> errors) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        List<Callable<Chunk>> chunks = new ArrayList<>();
+        int start = 0;
+        int limit = buffer.limit();
+        while (start < limit) {
+            int end = nextLineStart(buffer, Math.min(start + CHUNK_SIZE, limit));
+            chunks.add(new Chunk(storage, buffer, start, end));
+            start = end;
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (Future<Chunk> future : ForkJoinPool.commonPool().invokeAll(chunks)) {
+            Chunk chunk = join(future);
+            tasks.addAll(chunk.tasks);
+            errors.addAll(chunk.errors);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the position just after the first newline at or after the given position.
+     */
+    private static int nextLineStart(MappedByteBuffer buffer, int position) {
+        int limit = buffer.limit();
+        if (position == 0) {
+            return 0;
+        }
+        for (int i = position - 1; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static Chunk join(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading tasks", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load tasks: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * A range of whole lines that is parsed by one fork-join task.
+     */
+    private static final class Chunk implements Callable<Chunk> {
+        private final Storage storage;
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        Chunk(Storage storage, MappedByteBuffer buffer, int start, int end) {
+            this.storage = storage;
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Chunk call() {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            Charset charset = Charset.defaultCharset();
+
+            int lineStart = 0;
+            for (int i = 0; i <= bytes.length; i++) {
+                boolean isLineEnd = i == bytes.length ? i > lineStart : bytes[i] == '\n';
+                if (!isLineEnd) {
+                    continue;
+                }
+                int lineEnd = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                Task task = storage.parseTask(new String(bytes, lineStart, lineEnd - lineStart, charset), errors);
+                if (task != null) {
+                    tasks.add(task);
+                }
+                lineStart = i + 1;
+            }
+            return this;
+        }
+    }
+}
@@ -1,35 +1,339 @@
 package fiona.command;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import fiona.task.Deadline;
+import fiona.task.Event;
+
 /**
  * The {@code Parser} class is responsible for interpreting user input and converting it into a {@code Command} object.
+ *
+ * <p>The input is scanned once: the keyword is looked up without creating any intermediate strings, and the
+ * arguments of the actions that take them are validated and parsed here, so that a {@code Command} for adding,
+ * finding or referring to a task already carries its description, date-times or task number.
  */
 public class Parser {
+    /** The number of tasks on each page shown by {@code list --page} and {@code find ... --page}. */
+    public static final int PAGE_SIZE = 100;
+
+    private static final String PAGE_OPTION = "--page";
+    private static final String FIND_SELECTOR = "find";
+    private static final String DONE_SELECTOR = "done";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    /** The length of a date in the "yyyy-MM-dd" format. */
+    private static final int DATE_LENGTH = 10;
+
+    /** The length of a time in the "HHmm" format. */
+    private static final int TIME_LENGTH = 4;
 
     /**
      * Parses a user command string and converts it into a {@code Command} object.
      *
      * @param fullCommand The full user input string.
      * @return A {@code Command} object representing the parsed action and arguments.
-     * @throws FionaException If there is an issue parsing the command.
+     * @throws FionaException If the arguments of the command are invalid.
      */
     public static Command parse(String fullCommand) throws FionaException {
-        // Split the input into the command keyword and arguments (if any)
-        String[] inputs = fullCommand.trim().split("\\s+", 2);
-        Action action = Action.fromString(inputs[0]);
+        int end = fullCommand.length();
+        int keywordStart = skipWhitespace(fullCommand, 0, end);
+        int keywordEnd = keywordStart;
+        while (keywordEnd < end && !isWhitespace(fullCommand.charAt(keywordEnd))) {
+            keywordEnd++;
+        }
+        Action action = Action.fromString(fullCommand, keywordStart, keywordEnd);
+        String args = trimmed(fullCommand, keywordEnd, end);
+
+        switch (action) {
+        case TODO:
+            return parseTodo(args);
+        case DEADLINE:
+            return parseDeadline(args);
+        case EVENT:
+            return parseEvent(args);
+        case MARK:
+            return parseTaskReference(action, args, "You must specify a valid task number to mark as done.");
+        case UNMARK:
+            return parseTaskReference(action, args, "You must specify a valid task number to mark as not done yet.");
+        case DELETE:
+            return parseTaskReference(action, args, "You must specify a valid task number to delete.");
+        case LIST:
+            return parseList(args);
+        case FIND:
+            return parseFind(args);
+        default:
+            return new Command(action, args);
+        }
+    }
+
+    private static Command parseTodo(String args) throws FionaException {
+        if (args.isEmpty()) {
+            throw new FionaException("The description of a todo cannot be empty.");
+        }
+        return Command.todo(args, args);
+    }
+
+    private static Command parseDeadline(String args) throws FionaException {
+        int byIndex = args.indexOf("/by");
+        if (byIndex < 0) {
+            throw new FionaException("The description of a deadline must include a '/by' clause.");
+        }
+        String description = trimmed(args, 0, byIndex);
+        String by = trimmed(args, byIndex + "/by".length(), args.length());
+        if (description.isEmpty() || by.isEmpty()) {
+            throw new FionaException("Invalid format for deadline. Use: deadline <description> /by <deadline>");
+        }
+        return Command.deadline(args, description, Deadline.parseDeadline(by));
+    }
+
+    private static Command parseEvent(String args) throws FionaException {
+        int fromIndex = args.indexOf("/from");
+        if (fromIndex < 0 || !args.contains("/to")) {
+            throw new FionaException("The description of an event must include '/from' and '/to' clauses.");
+        }
+        int fromEnd = fromIndex + "/from".length();
+        int toIndex = args.indexOf("/to", fromEnd);
+        String description = trimmed(args, 0, fromIndex);
+        if (description.isEmpty() || toIndex < 0) {
+            throw new FionaException("Invalid format for event. Use: event <description> /from <start> /to <end>");
+        }
+        String from = trimmed(args, fromEnd, toIndex);
+        String to = trimmed(args, toIndex + "/to".length(), args.length());
+        if (from.isEmpty() || to.isEmpty()) {
+            throw new FionaException("Invalid format for event. Use: event <description> /from <start> /to <end>");
+        }
+        return Command.event(args, description, Event.parseEventTime(from), Event.parseEventTime(to));
+    }
+
+    /**
+     * Parses the task number, or the task ID given as {@code #id}, of a command that refers to a single task,
+     * or the selector of a command that applies to many: task numbers and ranges separated by commas such as
+     * "1-3,7", "done" for the tasks that are done, or "find KEYWORD" for the tasks containing a keyword.
+     */
+    private static Command parseTaskReference(Action action, String args, String emptyMessage)
+            throws FionaException {
+        if (args.isEmpty()) {
+            throw new FionaException(emptyMessage);
+        }
+        TaskSelector selector = parseSelector(args);
+        if (selector != null) {
+            return Command.bulk(action, args, selector);
+        }
+        boolean isIdReference = args.charAt(0) == '#';
+        int start = isIdReference ? skipWhitespace(args, 1, args.length()) : 0;
+        try {
+            return Command.taskReference(action, args, Integer.parseInt(args, start, args.length(), 10),
+                    isIdReference);
+        } catch (NumberFormatException e) {
+            throw new FionaException("The task number you specified must be a valid integer!");
+        }
+    }
+
+    /**
+     * Returns the selector given by the arguments of a mark, unmark or delete command, or {@code null} if they
+     * refer to a single task.
+     */
+    private static TaskSelector parseSelector(String args) throws FionaException {
+        if (args.equalsIgnoreCase(DONE_SELECTOR)) {
+            return TaskSelector.done();
+        }
+        int keywordEnd = FIND_SELECTOR.length();
+        if (args.regionMatches(true, 0, FIND_SELECTOR, 0, keywordEnd)
+                && (args.length() == keywordEnd || isWhitespace(args.charAt(keywordEnd)))) {
+            String keyword = trimmed(args, keywordEnd, args.length());
+            if (keyword.isEmpty()) {
+                throw new FionaException("You must specify a keyword to search for.");
+            }
+            return TaskSelector.keyword(keyword);
+        }
+        if (args.charAt(0) == '#' || args.indexOf(',') < 0 && args.indexOf('-', 1) < 0) {
+            return null;
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        int start = 0;
+        while (start <= args.length()) {
+            int end = args.indexOf(',', start);
+            if (end < 0) {
+                end = args.length();
+            }
+            ranges.add(parseNumberRange(args, start, end));
+            start = end + 1;
+        }
+        return TaskSelector.numbers(ranges);
+    }
+
+    /**
+     * Parses a task number, or a range of them written as "FIRST-LAST", into the first and last task number.
+     */
+    private static int[] parseNumberRange(String args, int start, int end) throws FionaException {
+        String item = trimmed(args, start, end);
+        int dash = item.indexOf('-');
+        try {
+            int first = Integer.parseInt(dash > 0 ? trimmed(item, 0, dash) : item);
+            int last = dash > 0 ? Integer.parseInt(trimmed(item, dash + 1, item.length())) : first;
+            if (first >= 1 && last >= first) {
+                return new int[] {first, last};
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like a range that is empty.
+        }
+        throw new FionaException("Invalid task numbers: " + item
+                + ". Use task numbers and ranges separated by commas, e.g. 1-3,7.");
+    }
+
+    /**
+     * Parses the arguments of a list command: nothing lists every task, "FIRST-LAST" lists the tasks numbered
+     * FIRST to LAST, and "--page N" lists the N-th page of tasks.
+     */
+    private static Command parseList(String args) throws FionaException {
+        if (args.isEmpty()) {
+            return Command.list(args, 0, Command.NO_LIMIT);
+        }
+        if (args.startsWith(PAGE_OPTION)) {
+            int page = parsePage(args, PAGE_OPTION.length());
+            return Command.list(args, pageOffset(page), PAGE_SIZE);
+        }
+
+        int dash = args.indexOf('-');
+        try {
+            if (dash > 0) {
+                int first = Integer.parseInt(trimmed(args, 0, dash));
+                int last = Integer.parseInt(trimmed(args, dash + 1, args.length()));
+                if (first >= 1 && last >= first) {
+                    return Command.list(args, first - 1, last - first + 1);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like a range that is empty.
+        }
+        throw new FionaException("Invalid format for list. Use: list, list <first>-<last> or list --page <page>");
+    }
+
+    /**
+     * Parses the page number that follows the {@code --page} option at the given position.
+     */
+    private static int parsePage(String args, int start) throws FionaException {
+        try {
+            int page = Integer.parseInt(trimmed(args, start, args.length()));
+            if (page >= 1) {
+                return page;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like a page number that is not positive.
+        }
+        throw new FionaException("The page number you specified must be a positive integer!");
+    }
+
+    /**
+     * Returns the number of tasks before the given page, capped so that it does not overflow.
+     */
+    private static int pageOffset(int page) {
+        return (int) Math.min((long) (page - 1) * PAGE_SIZE, Integer.MAX_VALUE);
+    }
 
-        // Extract arguments if exist
-        String args = "";
-        if (inputs.length > 1) {
-            args = inputs[1].trim();
+    /**
+     * Parses the arguments of a find command. A date finds the tasks on that day and a date-time finds the tasks
+     * at that minute; anything else is a keyword. A trailing "--page N" shows only the N-th page of matches.
+     */
+    private static Command parseFind(String args) throws FionaException {
+        String query = args;
+        int offset = 0;
+        int limit = Command.NO_LIMIT;
+        int pageIndex = args.lastIndexOf(PAGE_OPTION);
+        if (pageIndex == 0 || pageIndex > 0 && isWhitespace(args.charAt(pageIndex - 1))) {
+            query = trimmed(args, 0, pageIndex);
+            offset = pageOffset(parsePage(args, pageIndex + PAGE_OPTION.length()));
+            limit = PAGE_SIZE;
         }
 
-        if (action == Action.FIND) {
-            if (args.matches("\\d{4}-\\d{2}-\\d{2}") || args.matches("\\d{4}-\\d{2}-\\d{2}\\s+\\d{4}")) {
-            } else {
-                action = Action.FIND_KEYWORD;
+        int length = query.length();
+        if (length == DATE_LENGTH && isDateShape(query)) {
+            try {
+                LocalDate date = LocalDate.parse(query, DATE_FORMAT);
+                return Command.find(args, date.atStartOfDay(), date.atTime(23, 59), offset, limit);
+            } catch (DateTimeParseException e) {
+                throw new FionaException("Invalid date format. Please use yyyy-MM-dd (e.g., 2025-02-13).");
+            }
+        }
+        if (length > DATE_LENGTH + TIME_LENGTH && isDateShape(query) && isDateTimeShape(query)) {
+            try {
+                LocalDateTime dateTime = LocalDateTime.parse(query, DATE_TIME_FORMAT);
+                return Command.find(args, dateTime, dateTime, offset, limit);
+            } catch (DateTimeParseException e) {
+                throw new FionaException(
+                        "Invalid date-time format. Please use yyyy-MM-dd HHmm (e.g., 2025-02-13 1800).");
             }
         }
+        return Command.findKeyword(args, query, offset, limit);
+    }
 
-        return new Command(action, args);
+    /**
+     * Returns whether the input starts with digits and dashes in the shape of a "yyyy-MM-dd" date.
+     */
+    private static boolean isDateShape(String input) {
+        for (int i = 0; i < DATE_LENGTH; i++) {
+            char c = input.charAt(i);
+            boolean isDash = i == 4 || i == 7;
+            if (isDash ? c != '-' : !isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a date is followed by whitespace and a four-digit time, and nothing else.
+     */
+    private static boolean isDateTimeShape(String input) {
+        int length = input.length();
+        int timeStart = length - TIME_LENGTH;
+        for (int i = DATE_LENGTH; i < timeStart; i++) {
+            if (!isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = timeStart; i < length; i++) {
+            if (!isDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    private static int skipWhitespace(String input, int start, int end) {
+        while (start < end && isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the part of the input between the given positions without leading and trailing whitespace,
+     * creating a new string only if that part is not the whole input.
+     */
+    private static String trimmed(String input, int start, int end) {
+        start = skipWhitespace(input, start, end);
+        while (end > start && isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return "";
+        }
+        return start == 0 && end == input.length() ? input : input.substring(start, end);
     }
 }
@@ -0,0 +1,28 @@
+package fiona.command;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code PurgeEvent} class is a Flight Recorder event covering one removal of overdue deadlines and events.
+ */
+@Name("fiona.Purge")
+@Label("Overdue Task Purge")
+@Category("Fiona")
+final class PurgeEvent extends Event {
+    @Label("Tasks Removed")
+    private int removedCount;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    void setRemovedCount(int removedCount) {
+        this.removedCount = removedCount;
+    }
+
+    void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+}
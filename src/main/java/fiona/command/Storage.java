@@ -1,13 +1,28 @@
 package fiona.command;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import fiona.task.Deadline;
 import fiona.task.Event;
@@ -19,20 +34,173 @@ import fiona.task.Todo;
  * It allows loading tasks from a file at startup and saving tasks whenever changes occur.
  */
 public class Storage {
+    /**
+     * The start of the first line of a text file, which records the largest task ID given out so far,
+     * so that IDs of deleted tasks are not given out again after a restart.
+     */
+    private static final String LAST_ID_PREFIX = "L | #";
+
     /** The file path where tasks are stored. */
     private final String filePath;
 
+    /** The policy deciding when appended journal records are forced to disk. */
+    private final SyncPolicy syncPolicy;
+
+    /** The format used when writing the storage file; updated to the detected format on load. */
+    private StorageFormat format = StorageFormat.TEXT;
+
+    /** Whether text files are parsed in parallel chunks when loading. */
+    private boolean isParallelLoading;
+
+    /** The problems found in the stored data during the last load. */
+    private List<String> loadErrors = new ArrayList<>();
+
+    /** The settings that were ignored when this storage was created. */
+    private final List<String> settingErrors = new ArrayList<>();
+
     /**
-     * Constructs a {@code Storage} object with the specified file path.
+     * Constructs a {@code Storage} object with the specified file path and the {@code always} sync policy.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, SyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs a {@code Storage} object with the specified file path and sync policy.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param syncPolicy The policy deciding when appended journal records are forced to disk.
+     */
+    public Storage(String filePath, SyncPolicy syncPolicy) {
         this.filePath = filePath;
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * Creates the {@code Storage} selected by the {@code fiona.storage} system property.
+     * Use {@code journal} for the append-only journal, {@code mapped} for the memory-mapped binary file,
+     * or any other value to keep the plain text file.
+     * The {@code fiona.fsync} system property selects the {@code SyncPolicy}, which defaults to {@code always},
+     * the {@code fiona.format} system property selects the format of newly created files,
+     * and setting {@code fiona.parallelLoad} to {@code true} parses text files in parallel.
+     * An invalid sync policy or format is ignored in favour of the default and reported through
+     * {@link #getSettingErrors()}.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @return The {@code Storage} to use for the given file.
+     */
+    public static Storage create(String filePath) {
+        List<String> settingErrors = new ArrayList<>();
+        SyncPolicy syncPolicy;
+        try {
+            syncPolicy = SyncPolicy.parse(System.getProperty("fiona.fsync", "always"));
+        } catch (IllegalArgumentException e) {
+            syncPolicy = SyncPolicy.ALWAYS;
+            settingErrors.add("Ignoring the fiona.fsync setting and using always: " + e.getMessage());
+        }
+        Storage storage;
+        switch (System.getProperty("fiona.storage", "text")) {
+        case "journal":
+            storage = new JournalStorage(filePath, syncPolicy);
+            break;
+        case "mapped":
+            storage = new MappedStorage(filePath, syncPolicy);
+            storage.setParallelLoading(Boolean.getBoolean("fiona.parallelLoad"));
+            storage.settingErrors.addAll(settingErrors);
+            return storage;
+        default:
+            storage = new Storage(filePath, syncPolicy);
+            break;
+        }
+        try {
+            storage.setFormat(StorageFormat.fromString(System.getProperty("fiona.format", "text")));
+        } catch (IllegalArgumentException e) {
+            settingErrors.add("Ignoring the fiona.format setting and using text: " + e.getMessage());
+        }
+        storage.setParallelLoading(Boolean.getBoolean("fiona.parallelLoad"));
+        storage.settingErrors.addAll(settingErrors);
+        return storage;
+    }
+
+    /**
+     * Returns the policy deciding when appended journal records are forced to disk.
+     *
+     * @return The sync policy of this storage.
+     */
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * Returns the file path where tasks are stored.
+     *
+     * @return The storage file path.
+     */
+    public String getFilePath() {
+        return filePath;
     }
 
     /**
-     * Loads tasks from the storage file.
+     * Returns the format used when writing the storage file.
+     *
+     * @return The storage format.
+     */
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format used when writing the storage file.
+     * Loading an existing file switches to the format that file was written in.
+     *
+     * @param format The storage format.
+     */
+    public void setFormat(StorageFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Sets whether text files are split into newline-aligned chunks that are parsed in parallel when loading.
+     *
+     * @param isParallelLoading {@code true} to parse text files in parallel.
+     */
+    public void setParallelLoading(boolean isParallelLoading) {
+        this.isParallelLoading = isParallelLoading;
+    }
+
+    /**
+     * Returns the problems found in the stored data during the last load.
+     * Each entry describes a task that was skipped because it could not be read.
+     *
+     * @return The messages describing the skipped tasks.
+     */
+    public List<String> getLoadErrors() {
+        return Collections.unmodifiableList(loadErrors);
+    }
+
+    /**
+     * Returns the settings that were ignored because their values were invalid when this storage was created.
+     *
+     * @return The messages describing the ignored settings.
+     */
+    public List<String> getSettingErrors() {
+        return Collections.unmodifiableList(settingErrors);
+    }
+
+    /**
+     * Records a problem found in the stored data during the current load.
+     *
+     * @param error The message describing the skipped task.
+     */
+    void addLoadError(String error) {
+        loadErrors.add(error);
+    }
+
+    /**
+     * Loads tasks from the storage file, detecting whether it is in the text or binary format.
+     * Tasks that cannot be read are skipped and reported through {@link #getLoadErrors()}.
      *
      * @return A list of tasks loaded from the file.
      * @throws IOException If an error occurs while reading the file.
@@ -40,15 +208,27 @@ public class Storage {
     public List<Task> load() throws IOException {
         List<Task> taskList = new ArrayList<>();
         File file = new File(filePath);
+        loadErrors = new ArrayList<>();
 
         if (!file.exists()) {
             return taskList;
         }
 
+        format = detectFormat(file);
+        if (format == StorageFormat.BINARY) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                return BinaryTaskFormat.read(in);
+            }
+        }
+
+        if (isParallelLoading && ParallelTextLoader.canLoad(file)) {
+            return ParallelTextLoader.load(this, file, loadErrors);
+        }
+
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                Task task = parseTask(line);
+                Task task = parseTask(line, loadErrors);
                 if (task != null) {
                     taskList.add(task);
                 }
@@ -57,8 +237,25 @@ public class Storage {
         return taskList;
     }
 
+    /**
+     * Detects the format of the given file from its leading bytes.
+     *
+     * @param file The file to inspect.
+     * @return The format the file is written in.
+     * @throws IOException If an error occurs while reading the file.
+     */
+    static StorageFormat detectFormat(File file) throws IOException {
+        byte[] head = new byte[Integer.BYTES];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int length = in.readNBytes(head, 0, head.length);
+            return BinaryTaskFormat.hasMagic(head, length) ? StorageFormat.BINARY : StorageFormat.TEXT;
+        }
+    }
+
     /**
      * Saves the given list of tasks to the storage file.
+     * The tasks are written to a temporary file that then atomically replaces the storage file,
+     * so a crash while saving leaves either the old or the new list behind.
      *
      * @param tasks The list of tasks to save.
      * @throws IOException If an error occurs while writing to the file.
@@ -71,72 +268,226 @@ public class Storage {
             parentDir.mkdirs();
         }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+        writeSnapshot(tasks, Paths.get(filePath + ".tmp"), file.toPath());
+    }
+
+    /**
+     * Writes the tasks to a temporary file and atomically renames it over the target file.
+     * Whatever the sync policy, the file is forced to disk before the rename and the rename before
+     * returning, since otherwise a crash could leave an empty or partly written task file behind.
+     *
+     * @param tasks The tasks to write.
+     * @param tempFile The temporary file to write first.
+     * @param target The file to replace.
+     * @throws IOException If an error occurs while writing or renaming the file.
+     */
+    void writeSnapshot(List<Task> tasks, Path tempFile, Path target) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent(target.toString(), StorageSaveEvent.SNAPSHOT);
+        event.begin();
+        writeTasks(tasks, tempFile.toFile());
+        event.setBytesWritten(Files.size(tempFile));
+        replaceFile(tempFile, target);
+        event.setTaskCount(tasks.size());
+        event.setSynced(true);
+        event.commit();
+    }
+
+    /**
+     * Persists a single change to the task list.
+     * This implementation rewrites the whole file; subclasses may record the change incrementally.
+     *
+     * @param tasks The task list after the change was applied.
+     * @param change The change that was applied.
+     * @throws IOException If an error occurs while writing to the file.
+     */
+    public void saveChange(TaskList tasks, TaskChange change) throws IOException {
+        save(tasks.getTasks());
+    }
+
+    /**
+     * Persists a sequence of changes to the task list in one step.
+     * This implementation rewrites the whole file once; subclasses may record the changes incrementally.
+     *
+     * @param tasks The task list after the changes were applied.
+     * @param changes The changes that were applied, in order.
+     * @throws IOException If an error occurs while writing to the file.
+     */
+    public void saveChanges(TaskList tasks, List<TaskChange> changes) throws IOException {
+        if (!changes.isEmpty()) {
+            save(tasks.getTasks());
+        }
+    }
+
+    /**
+     * Returns whether saving the given number of changes with {@link #saveChanges(Supplier, List)} writes the
+     * whole task list, so that a snapshot of it has to be taken right after the changes are applied.
+     * This implementation always rewrites the whole file.
+     *
+     * @param changeCount The number of changes to save.
+     * @return {@code true} if the save needs a snapshot of the task list.
+     */
+    public boolean needsSnapshot(int changeCount) {
+        return true;
+    }
+
+    /**
+     * Persists a sequence of changes given a snapshot of the task list taken right after they were applied.
+     * This is used when the changes are saved in the background, while the task list may already have
+     * changed again. This implementation rewrites the whole file once with the snapshot.
+     *
+     * @param tasks Supplies the snapshot of the task list after the changes were applied, or {@code null} if
+     *     none was taken because {@link #needsSnapshot(int)} returned {@code false}.
+     * @param changes The changes that were applied, in order.
+     * @throws IOException If an error occurs while writing to the file.
+     */
+    public void saveChanges(Supplier<List<Task>> tasks, List<TaskChange> changes) throws IOException {
+        if (!changes.isEmpty()) {
+            List<Task> snapshot = tasks.get();
+            assert snapshot != null : "Rewriting the file needs a snapshot of the task list";
+            save(snapshot);
+        }
+    }
+
+    /**
+     * Writes the given tasks to the given file in the storage format, replacing its contents, and forces
+     * them to disk.
+     *
+     * @param tasks The tasks to write.
+     * @param file The file to write to.
+     * @throws IOException If an error occurs while writing to the file.
+     */
+    void writeTasks(List<Task> tasks, File file) throws IOException {
+        if (format == StorageFormat.BINARY) {
+            try (FileOutputStream out = new FileOutputStream(file);
+                    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+                BinaryTaskFormat.write(tasks, data);
+                data.flush();
+                out.getFD().sync();
+            }
+            return;
+        }
+
+        try (FileOutputStream out = new FileOutputStream(file);
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+            writer.write(LAST_ID_PREFIX + Task.getLastId());
+            writer.newLine();
             for (Task task : tasks) {
                 writer.write(serializeTask(task));
                 writer.newLine();
             }
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+
+    /**
+     * Atomically replaces the target file with the source file and forces the rename to disk.
+     *
+     * @param source The fully written file to move.
+     * @param target The file to replace.
+     * @throws IOException If an error occurs while moving the file.
+     */
+    void replaceFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            try (FileChannel directory = FileChannel.open(parent, StandardOpenOption.READ)) {
+                directory.force(true);
+            } catch (IOException e) {
+                // Some platforms cannot open directories; the rename itself is still atomic there.
+            }
         }
     }
 
     /**
      * Parses a task from a line of text stored in the file.
+     * A trailing {@code #id} field restores the task's ID; lines written before IDs were stored get a new one.
+     * The line recording the largest ID given out so far reserves the IDs up to it instead.
+     * Overdue deadlines and events are restored as they are, to be purged by the task list.
      *
      * @param line The line representing a task in the storage file.
-     * @return The corresponding {@code Task} object, or {@code null} if the line is invalid.
+     * @param errors The list to add a message to if the line is invalid.
+     * @return The corresponding {@code Task} object, or {@code null} if the line is invalid or holds no task.
      */
-    private Task parseTask(String line) {
-        System.out.println("Parsing line: " + line); // Debug statement
+    Task parseTask(String line, List<String> errors) {
+        if (line.startsWith(LAST_ID_PREFIX)) {
+            int lastId = parseId(line.substring(LAST_ID_PREFIX.length() - 1));
+            if (lastId > 0) {
+                Task.reserveIds(lastId);
+            } else {
+                errors.add("Skipping malformed last task ID: " + line);
+            }
+            return null;
+        }
         String[] parts = line.split(" \\| ");
 
         if (parts.length < 3) {
-            System.out.println("Skipping malformed line (insufficient parts): " + line);
+            errors.add("Skipping malformed line (insufficient parts): " + line);
             return null;
         }
 
         String type = parts[0];
         boolean isDone = parts[1].equals("1");
         String description = parts[2];
+        int fieldCount = parts.length;
+        int id = parseId(parts[parts.length - 1]);
+        if (parts.length > 3 && id > 0) {
+            --fieldCount;
+        } else {
+            id = 0;
+        }
 
+        Task task;
         try {
             switch (type) {
             case "T":
-                Task todo = new Todo(description);
-                if (isDone) {
-                    todo.setDone();
-                }
-                return todo;
+                task = new Todo(description, id);
+                break;
             case "D":
-                if (parts.length < 4) {
-                    System.out.println("Skipping malformed Deadline task (missing 'by' field): " + line);
+                if (fieldCount < 4) {
+                    errors.add("Skipping malformed Deadline task (missing 'by' field): " + line);
                     return null;
                 }
-                String deadline = parts[3];
-                Task deadlineTask = new Deadline(description, deadline);
-                if (isDone) {
-                    deadlineTask.setDone();
-                }
-                return deadlineTask;
+                task = Deadline.restore(description, Deadline.parseDeadline(parts[3]), isDone, id);
+                break;
             case "E":
-                if (parts.length < 5) {
-                    System.out.println("Skipping malformed Event task (missing 'from' or 'to' fields): " + line);
+                if (fieldCount < 5) {
+                    errors.add("Skipping malformed Event task (missing 'from' or 'to' fields): " + line);
                     return null;
                 }
-                String from = parts[3];
-                String to = parts[4];
-                Task event = new Event(description, from, to);
-                if (isDone) {
-                    event.setDone();
-                }
-                return event;
+                task = Event.restore(description, Event.parseEventTime(parts[3]), Event.parseEventTime(parts[4]),
+                        isDone, id);
+                break;
             default:
-                System.out.println("Unknown task type: " + type + " in line: " + line);
+                errors.add("Unknown task type: " + type + " in line: " + line);
                 return null;
             }
         } catch (FionaException e) {
-            System.out.println("Error parsing task: " + e.getMessage() + " in line: " + line);
+            errors.add("Error parsing task: " + e.getMessage() + " in line: " + line);
             return null;
         }
+        if (isDone) {
+            task.setDone();
+        }
+        return task;
+    }
+
+    /**
+     * Returns the ID in a stored {@code #id} field, or 0 if the field is not an ID.
+     */
+    private static int parseId(String field) {
+        if (field.length() < 2 || field.charAt(0) != '#') {
+            return 0;
+        }
+        try {
+            return Math.max(Integer.parseInt(field.substring(1)), 0);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     /**
@@ -145,7 +496,7 @@ public class Storage {
      * @param task The task to serialize.
      * @return A string representation of the task for storage.
      */
-    private String serializeTask(Task task) {
+    String serializeTask(Task task) {
         StringBuilder sb = new StringBuilder();
         if (task instanceof Todo) {
             sb.append("T | ");
@@ -163,6 +514,7 @@ public class Storage {
             sb.append(" | ").append(((Event) task).getFromForStorage());
             sb.append(" | ").append(((Event) task).getToForStorage());
         }
+        sb.append(" | #").append(task.getId());
 
         return sb.toString();
     }
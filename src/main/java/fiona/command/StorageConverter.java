@@ -0,0 +1,48 @@
+package fiona.command;
+
+import java.io.IOException;
+import java.util.List;
+
+import fiona.task.Task;
+
+/**
+ * The {@code StorageConverter} class converts a task file between the text and binary formats.
+ */
+public class StorageConverter {
+
+    /**
+     * Reads the tasks in the source file, whichever format it is in, and writes them to the target file
+     * in the given format.
+     *
+     * @param sourcePath The path to the file to convert.
+     * @param targetPath The path to write the converted file to. It may be the same as the source path.
+     * @param format The format to convert to.
+     * @return The number of tasks converted.
+     * @throws IOException If an error occurs while reading or writing the files.
+     */
+    public static int convert(String sourcePath, String targetPath, StorageFormat format) throws IOException {
+        List<Task> tasks = new Storage(sourcePath).load();
+        Storage target = new Storage(targetPath);
+        target.setFormat(format);
+        target.save(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a task file from the command line.
+     *
+     * @param args The source path, target path and target format ({@code text} or {@code binary}).
+     */
+    public static void main(String... args) {
+        if (args.length != 3) {
+            System.out.println("Usage: StorageConverter <source> <target> <text|binary>");
+            return;
+        }
+        try {
+            int count = convert(args[0], args[1], StorageFormat.fromString(args[2]));
+            System.out.println("Converted " + count + " task(s) to " + args[1]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Conversion failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fiona.command;
+
+/**
+ * The {@code StorageFormat} enum represents the file formats a {@code Storage} can read and write.
+ */
+public enum StorageFormat {
+    /** Represents the human-readable format with one "T | 1 | name" line per task. */
+    TEXT,
+
+    /** Represents the compact binary format with a versioned header and length-prefixed records. */
+    BINARY;
+
+    /**
+     * Converts a string into a {@code StorageFormat} enum value.
+     *
+     * @param format The string representation of a format.
+     * @return The corresponding {@code StorageFormat} enum value.
+     * @throws IllegalArgumentException If the string does not name a known format.
+     */
+    public static StorageFormat fromString(String format) {
+        try {
+            return StorageFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage format: " + format + ". Use text or binary.");
+        }
+    }
+}
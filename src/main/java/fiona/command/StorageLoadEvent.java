@@ -0,0 +1,44 @@
+package fiona.command;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code StorageLoadEvent} class is a Flight Recorder event covering the loading of the task file.
+ */
+@Name("fiona.StorageLoad")
+@Label("Storage Load")
+@Category({"Fiona", "Storage"})
+final class StorageLoadEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Storage")
+    private String storage;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("File Size")
+    @DataAmount(DataAmount.BYTES)
+    private long fileSize;
+
+    void setPath(String path) {
+        this.path = path;
+    }
+
+    void setStorage(Storage storage) {
+        this.storage = storage.getClass().getSimpleName();
+    }
+
+    void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+}
@@ -0,0 +1,59 @@
+package fiona.command;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code StorageSaveEvent} class is a Flight Recorder event covering one write to storage,
+ * either a whole task file or a group of journal records.
+ */
+@Name("fiona.StorageSave")
+@Label("Storage Save")
+@Category({"Fiona", "Storage"})
+final class StorageSaveEvent extends Event {
+    /** The kind of a write that replaces the whole task file. */
+    static final String SNAPSHOT = "snapshot";
+
+    /** The kind of a write that appends records to the journal. */
+    static final String JOURNAL = "journal";
+
+    @Label("Path")
+    private String path;
+
+    @Label("Kind")
+    @Description("Whether the whole task file was written or records were appended to the journal")
+    private String kind;
+
+    @Label("Task Count")
+    @Description("The number of tasks written, or of changed tasks whose records were appended to the journal")
+    private int taskCount;
+
+    @Label("Bytes Written")
+    @DataAmount(DataAmount.BYTES)
+    private long bytesWritten;
+
+    @Label("Synced")
+    @Description("Whether the data was forced to disk")
+    private boolean isSynced;
+
+    StorageSaveEvent(String path, String kind) {
+        this.path = path;
+        this.kind = kind;
+    }
+
+    void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    void setSynced(boolean isSynced) {
+        this.isSynced = isSynced;
+    }
+}
@@ -0,0 +1,110 @@
+package fiona.command;
+
+/**
+ * The {@code SyncPolicy} class decides when a {@code JournalStorage} forces appended journal records to disk.
+ * Forcing on every write is the most durable but also the slowest; forcing at most once per
+ * interval or never trades recent changes for throughput. The policy does not apply to task files, which
+ * are always forced to disk before they atomically replace the old ones, so none of the policies can leave
+ * a half-written task file behind.
+ */
+public class SyncPolicy {
+    /** Forces every write to disk before returning. */
+    public static final SyncPolicy ALWAYS = new SyncPolicy(0);
+
+    /** Never forces writes, leaving it to the operating system to flush them. */
+    public static final SyncPolicy NEVER = new SyncPolicy(-1);
+
+    /** The minimum time between forced writes, 0 to force every write, or negative to never force. */
+    private final long intervalMillis;
+
+    private long lastSyncMillis;
+
+    private SyncPolicy(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Creates a policy that forces writes to disk at most once every given number of milliseconds.
+     *
+     * @param intervalMillis The minimum time between forced writes in milliseconds.
+     * @return The corresponding {@code SyncPolicy}.
+     */
+    public static SyncPolicy every(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            return ALWAYS;
+        }
+        return new SyncPolicy(intervalMillis);
+    }
+
+    /**
+     * Parses a policy from its textual form: {@code always}, {@code never}, or {@code interval:<millis>}.
+     *
+     * @param spec The textual form of the policy.
+     * @return The corresponding {@code SyncPolicy}.
+     * @throws IllegalArgumentException If the text is not a valid policy.
+     */
+    public static SyncPolicy parse(String spec) {
+        String trimmed = spec.trim().toLowerCase();
+        if (trimmed.equals("always")) {
+            return ALWAYS;
+        } else if (trimmed.equals("never")) {
+            return NEVER;
+        } else if (trimmed.startsWith("interval:")) {
+            try {
+                return every(Long.parseLong(trimmed.substring("interval:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sync interval: " + spec);
+            }
+        }
+        throw new IllegalArgumentException("Unknown sync policy: " + spec
+                + ". Use always, never or interval:<millis>.");
+    }
+
+    /**
+     * Returns whether the write that is about to complete should be forced to disk.
+     * For interval policies, a positive answer starts a new interval.
+     *
+     * @return {@code true} if the write should be forced, {@code false} otherwise.
+     */
+    public synchronized boolean shouldSync() {
+        if (intervalMillis <= 0) {
+            return intervalMillis == 0;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastSyncMillis < intervalMillis) {
+            return false;
+        }
+        lastSyncMillis = now;
+        return true;
+    }
+
+    /**
+     * Returns how long to wait before forcing a write that {@link #shouldSync()} declined, so that no write
+     * stays unforced for longer than one interval even if no further write comes.
+     *
+     * @return The delay in milliseconds, or -1 if declined writes are never forced later.
+     */
+    public synchronized long getSyncDelayMillis() {
+        if (intervalMillis <= 0) {
+            return -1;
+        }
+        return Math.max(0, lastSyncMillis + intervalMillis - System.currentTimeMillis());
+    }
+
+    /**
+     * Records that declined writes were forced to disk later, which starts a new interval.
+     */
+    public synchronized void recordSync() {
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        if (intervalMillis == 0) {
+            return "always";
+        } else if (intervalMillis < 0) {
+            return "never";
+        }
+        return "interval:" + intervalMillis;
+    }
+}
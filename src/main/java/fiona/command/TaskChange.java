@@ -0,0 +1,121 @@
+package fiona.command;
+
+import fiona.task.Task;
+
+/**
+ * The {@code TaskChange} class describes a single mutation applied to a {@code TaskList}.
+ * It allows a {@code Storage} to persist the mutation incrementally instead of rewriting every task.
+ */
+public class TaskChange {
+    /**
+     * The kinds of mutation that can be applied to a task list.
+     */
+    public enum Type {
+        /** A task was appended to the end of the list. */
+        ADD,
+
+        /** A task was marked as done. */
+        MARK,
+
+        /** A task was marked as not done. */
+        UNMARK,
+
+        /** A task was removed from the list. */
+        DELETE,
+
+        /** A task was put back into the list at a given position, such as by undoing its deletion. */
+        INSERT
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+
+    private TaskChange(Type type, int index, Task task) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+    }
+
+    /**
+     * Creates a change recording that a task was appended to the list.
+     *
+     * @param index The position the task was added at (0-based index).
+     * @param task The task that was added.
+     * @return The corresponding {@code TaskChange}.
+     */
+    public static TaskChange added(int index, Task task) {
+        return new TaskChange(Type.ADD, index, task);
+    }
+
+    /**
+     * Creates a change recording that a task was marked as done.
+     *
+     * @param index The position of the task (0-based index), or -1 if it was referred to by ID.
+     * @param task The task that was marked.
+     * @return The corresponding {@code TaskChange}.
+     */
+    public static TaskChange marked(int index, Task task) {
+        return new TaskChange(Type.MARK, index, task);
+    }
+
+    /**
+     * Creates a change recording that a task was marked as not done.
+     *
+     * @param index The position of the task (0-based index), or -1 if it was referred to by ID.
+     * @param task The task that was unmarked.
+     * @return The corresponding {@code TaskChange}.
+     */
+    public static TaskChange unmarked(int index, Task task) {
+        return new TaskChange(Type.UNMARK, index, task);
+    }
+
+    /**
+     * Creates a change recording that a task was removed from the list.
+     *
+     * @param index The position the task was removed from (0-based index), or -1 if it was deleted by ID.
+     * @param task The task that was removed.
+     * @return The corresponding {@code TaskChange}.
+     */
+    public static TaskChange deleted(int index, Task task) {
+        return new TaskChange(Type.DELETE, index, task);
+    }
+
+    /**
+     * Creates a change recording that a task was put back into the list at a given position.
+     *
+     * @param index The position the task was inserted at (0-based index).
+     * @param task The task that was inserted.
+     * @return The corresponding {@code TaskChange}.
+     */
+    public static TaskChange inserted(int index, Task task) {
+        return new TaskChange(Type.INSERT, index, task);
+    }
+
+    /**
+     * Returns the kind of this change.
+     *
+     * @return The {@code Type} of the change.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the position of the affected task.
+     *
+     * @return The 0-based index of the task.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the affected task.
+     *
+     * @return The task that was changed.
+     */
+    public Task getTask() {
+        return task;
+    }
+}
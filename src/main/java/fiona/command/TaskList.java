@@ -1,8 +1,19 @@
 package fiona.command;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import fiona.task.Deadline;
 import fiona.task.Event;
@@ -11,10 +22,50 @@ import fiona.task.Task;
 /**
  * The {@code TaskList} class represents a list of tasks managed by the Fiona chatbot.
  * It provides methods for adding, retrieving, marking, and unmarking tasks.
+ *
+ * <p>A {@code TaskList} can be shared between threads. Changes take an exclusive lock, so they happen
+ * one at a time in a single order, while queries share a read lock once the index they need is built.
+ * {@link #getTasks()} returns an immutable snapshot, which stays valid while the list changes and is
+ * reused until it does.
+ *
+ * <p>Every add, mark, unmark and delete is recorded in a bounded undo history, and {@link #undo()} and
+ * {@link #redo()} apply the inverse of a recorded edit directly, without copying the list.
  */
 public class TaskList {
-    /** The list of tasks managed by this {@code TaskList}. */
-    private List<Task> tasks;
+    private static final Comparator<Task> EXPIRY_ORDER = Comparator.comparingLong(TaskList::endOf);
+
+    /** Guards every other field, except {@code snapshot}. */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The list of tasks managed by this {@code TaskList}.
+     * Tasks deleted by ID stay in the list as tombstones until the list is next accessed by position.
+     */
+    private final List<Task> tasks;
+
+    /** The snapshot of the tasks returned by {@code getTasks()}, or {@code null} if the list changed since. */
+    private volatile List<Task> snapshot;
+
+    /** The tasks by ID, built on the first lookup by ID. Tombstones are not in the map. */
+    private Map<Integer, Task> idIndex;
+
+    /** The number of tombstones in {@code tasks}. */
+    private int tombstones;
+
+    /** The index of deadlines and events by date, built on the first date query. */
+    private DateIndex dateIndex;
+
+    /** The index of task names by trigram, built on the first keyword query. */
+    private KeywordIndex keywordIndex;
+
+    /**
+     * The deadlines and events ordered by their end time, built on the first purge.
+     * Deleted tasks are left in the queue and skipped when they come due.
+     */
+    private PriorityQueue<Task> expiryQueue;
+
+    /** The recent edits, which can be undone and redone. */
+    private final UndoHistory history = new UndoHistory(UndoHistory.DEFAULT_CAPACITY);
 
     /**
      * Constructs an empty {@code TaskList}.
@@ -38,7 +89,26 @@ public class TaskList {
      * @param t The task to be added.
      */
     public void add(Task t) {
-        this.tasks.add(t);
+        long stamp = lock.writeLock();
+        try {
+            this.tasks.add(t);
+            snapshot = null;
+            history.recordAdd(t, tasks.size() - tombstones - 1);
+            if (idIndex != null) {
+                idIndex.put(t.getId(), t);
+            }
+            if (dateIndex != null) {
+                dateIndex.add(t);
+            }
+            if (keywordIndex != null) {
+                keywordIndex.add(t);
+            }
+            if (expiryQueue != null && isTimed(t)) {
+                expiryQueue.add(t);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -49,12 +119,15 @@ public class TaskList {
      * @throws FionaException If the specified index is out of bounds.
      */
     public Task mark(int index) throws FionaException {
-        if (index < 0 || index >= this.size()) {
-            throw new FionaException("You must specify a valid task number to mark as done.");
+        long stamp = lock.writeLock();
+        try {
+            Task task = taskAt(index, "You must specify a valid task number to mark as done.");
+            history.recordSetDone(task, task.getIsDone(), true);
+            task.setDone();
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        Task task = tasks.get(index);
-        task.setDone();
-        return task;
     }
 
     /**
@@ -65,36 +138,646 @@ public class TaskList {
      * @throws FionaException If the specified index is out of bounds.
      */
     public Task unmark(int index) throws FionaException {
-        if (index < 0 || index >= this.size()) {
-            throw new FionaException("You must specify a valid task number to mark as not done yet.");
+        long stamp = lock.writeLock();
+        try {
+            Task task = taskAt(index, "You must specify a valid task number to mark as not done yet.");
+            history.recordSetDone(task, task.getIsDone(), false);
+            task.setUndone();
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes a task based on its index.
+     *
+     * @param index The index of the task to delete (0-based index).
+     * @return The task that was deleted.
+     * @throws FionaException If the specified index is out of bounds.
+     */
+    public Task delete(int index) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            taskAt(index, "You must specify a valid task number to delete.");
+            Task task = tasks.remove(index);
+            snapshot = null;
+            removeFromIndexes(task);
+            history.recordDelete(task, index);
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the task at the given position, removing any tombstones first. Must be called with the write lock.
+     */
+    private Task taskAt(int index, String invalidIndexMessage) throws FionaException {
+        if (index < 0 || index >= tasks.size() - tombstones) {
+            throw new FionaException(invalidIndexMessage);
+        }
+        compact();
+        return tasks.get(index);
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The task with the given ID.
+     * @throws FionaException If there is no task with the given ID.
+     */
+    public Task getById(int id) throws FionaException {
+        return requireTask(query(() -> idIndex != null, () -> idIndex().get(id)), id);
+    }
+
+    /**
+     * Marks the task with the given ID as done.
+     *
+     * @param id The ID of the task.
+     * @return The task that was marked as done.
+     * @throws FionaException If there is no task with the given ID.
+     */
+    public Task markById(int id) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            Task task = requireTask(idIndex().get(id), id);
+            history.recordSetDone(task, task.getIsDone(), true);
+            task.setDone();
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Marks the task with the given ID as not done.
+     *
+     * @param id The ID of the task.
+     * @return The task that was marked as not done.
+     * @throws FionaException If there is no task with the given ID.
+     */
+    public Task unmarkById(int id) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            Task task = requireTask(idIndex().get(id), id);
+            history.recordSetDone(task, task.getIsDone(), false);
+            task.setUndone();
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes the task with the given ID in constant time. The task is left in the list as a tombstone,
+     * and all tombstones are removed in one pass the next time the list is accessed by position.
+     *
+     * @param id The ID of the task.
+     * @return The task that was deleted.
+     * @throws FionaException If there is no task with the given ID.
+     */
+    public Task deleteById(int id) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            Task task = requireTask(idIndex().get(id), id);
+            removeTask(task);
+            history.recordDelete(task, -1);
+            return task;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Marks every selected task as done, in a single pass over the list.
+     *
+     * @param selector The tasks to mark.
+     * @return The tasks that were not done before, in list order.
+     * @throws FionaException If a selected task number is beyond the end of the list.
+     */
+    public List<Task> markAll(TaskSelector selector) throws FionaException {
+        return setDoneAll(selector, true);
+    }
+
+    /**
+     * Marks every selected task as not done, in a single pass over the list.
+     *
+     * @param selector The tasks to unmark.
+     * @return The tasks that were done before, in list order.
+     * @throws FionaException If a selected task number is beyond the end of the list.
+     */
+    public List<Task> unmarkAll(TaskSelector selector) throws FionaException {
+        return setDoneAll(selector, false);
+    }
+
+    private List<Task> setDoneAll(TaskSelector selector, boolean isDone) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            compact();
+            requireInRange(selector);
+            List<Task> changed = new ArrayList<>();
+            if (selector.isByPosition()) {
+                // Only the selected positions are visited, so a mapped list decodes just those tasks.
+                selector.forEachPosition(tasks.size(), position -> {
+                    Task task = tasks.get(position);
+                    if (task.getIsDone() != isDone) {
+                        changed.add(task);
+                    }
+                });
+            } else {
+                for (int i = 0; i < tasks.size(); i++) {
+                    Task task = tasks.get(i);
+                    if (task.getIsDone() != isDone && selector.matches(i, task)) {
+                        changed.add(task);
+                    }
+                }
+            }
+            for (Task task : changed) {
+                applyDone(task, isDone);
+            }
+            history.recordSetDone(changed, !isDone);
+            return changed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes every selected task with a single {@code removeIf} over the list, so the positions of the
+     * selected tasks are the ones they had before any of them was deleted.
+     *
+     * @param selector The tasks to delete.
+     * @return The deleted tasks, in list order.
+     * @throws FionaException If a selected task number is beyond the end of the list.
+     */
+    public List<Task> deleteAll(TaskSelector selector) throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            compact();
+            requireInRange(selector);
+            List<Task> deleted = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            int[] position = {0};
+            // removeIf visits the tasks in list order, which the positions rely on.
+            tasks.removeIf(task -> {
+                int current = position[0]++;
+                if (!selector.matches(current, task)) {
+                    return false;
+                }
+                removeFromIndexes(task);
+                deleted.add(task);
+                positions.add(current);
+                return true;
+            });
+            if (!deleted.isEmpty()) {
+                snapshot = null;
+            }
+            history.recordDelete(deleted, positions.stream().mapToInt(Integer::intValue).toArray());
+            return deleted;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void requireInRange(TaskSelector selector) throws FionaException {
+        int size = tasks.size() - tombstones;
+        if (selector.getLastNumber() > size) {
+            throw new FionaException("There is no task number " + selector.getLastNumber() + ", as there are only "
+                    + size + " task(s) in the list.");
+        }
+    }
+
+    /**
+     * Undoes the most recent edit that has not been undone yet. Deleted tasks are put back where they were.
+     *
+     * @return The changes that undoing the edit applied to the list, one for each task.
+     * @throws FionaException If there is nothing to undo, or the tasks of the edit have been removed since.
+     */
+    public List<TaskChange> undo() throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            UndoHistory.Edit edit = history.undo();
+            if (edit == null) {
+                throw new FionaException("There is nothing to undo.");
+            }
+            switch (edit.getKind()) {
+            case ADD:
+                return removeAll(edit);
+            case SET_DONE:
+                return setDone(edit, edit.wasDone());
+            case DELETE:
+                // Removing the tombstones fills in the position of a task that was deleted by ID.
+                compact();
+                return insertAll(edit);
+            default:
+                throw new AssertionError("Unknown edit kind: " + edit.getKind());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Redoes the edit that was undone last.
+     *
+     * @return The changes that redoing the edit applied to the list, one for each task.
+     * @throws FionaException If there is nothing to redo, or the tasks of the edit have been removed since.
+     */
+    public List<TaskChange> redo() throws FionaException {
+        long stamp = lock.writeLock();
+        try {
+            UndoHistory.Edit edit = history.redo();
+            if (edit == null) {
+                throw new FionaException("There is nothing to redo.");
+            }
+            switch (edit.getKind()) {
+            case ADD:
+                return insertAll(edit);
+            case SET_DONE:
+                return setDone(edit, !edit.wasDone());
+            case DELETE:
+                return removeAll(edit);
+            default:
+                throw new AssertionError("Unknown edit kind: " + edit.getKind());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the tasks of the edit that are still in the list. Must be called with the write lock.
+     */
+    private List<Task> currentTasks(UndoHistory.Edit edit) throws FionaException {
+        Map<Integer, Task> index = idIndex();
+        List<Task> current = new ArrayList<>(edit.getTasks().size());
+        for (Task task : edit.getTasks()) {
+            if (index.get(task.getId()) == task) {
+                current.add(task);
+            }
+        }
+        if (current.isEmpty()) {
+            throw new FionaException(edit.getTasks().size() == 1
+                    ? "The task " + edit.getTasks().get(0).getName() + " is no longer in the list."
+                    : "Those tasks are no longer in the list.");
+        }
+        return current;
+    }
+
+    private List<TaskChange> setDone(UndoHistory.Edit edit, boolean isDone) throws FionaException {
+        List<TaskChange> changes = new ArrayList<>();
+        for (Task task : currentTasks(edit)) {
+            changes.add(applyDone(task, isDone));
+        }
+        return changes;
+    }
+
+    private static TaskChange applyDone(Task task, boolean isDone) {
+        if (isDone) {
+            task.setDone();
+            return TaskChange.marked(-1, task);
         }
-        Task task = tasks.get(index);
         task.setUndone();
+        return TaskChange.unmarked(-1, task);
+    }
+
+    private List<TaskChange> removeAll(UndoHistory.Edit edit) throws FionaException {
+        List<TaskChange> changes = new ArrayList<>();
+        for (Task task : currentTasks(edit)) {
+            removeTask(task);
+            changes.add(TaskChange.deleted(-1, task));
+        }
+        return changes;
+    }
+
+    /**
+     * Puts the tasks of the edit back at their positions, in increasing order of position.
+     * Many tasks are merged into an array list in a single pass from its end, instead of shifting its tail once
+     * for each task.
+     */
+    private List<TaskChange> insertAll(UndoHistory.Edit edit) {
+        List<Task> edited = edit.getTasks();
+        List<TaskChange> changes = new ArrayList<>(edited.size());
+        if (edited.size() == 1 || tasks instanceof MappedTaskList) {
+            for (int i = 0; i < edited.size(); i++) {
+                Task task = edited.get(i);
+                changes.add(TaskChange.inserted(insertTask(edit.getIndex(i), task), task));
+            }
+            return changes;
+        }
+
+        compact();
+        int oldSize = tasks.size();
+        int[] positions = new int[edited.size()];
+        for (int i = 0; i < edited.size(); i++) {
+            // The list may have become shorter since, so each task goes no further than the end.
+            int index = edit.getIndex(i);
+            positions[i] = index < 0 ? oldSize + i : Math.min(index, oldSize + i);
+        }
+        tasks.addAll(edited);
+        int source = oldSize - 1;
+        int next = edited.size() - 1;
+        for (int target = tasks.size() - 1; next >= 0; target--) {
+            tasks.set(target, positions[next] == target ? edited.get(next--) : tasks.get(source--));
+        }
+        snapshot = null;
+        for (int i = 0; i < edited.size(); i++) {
+            Task task = edited.get(i);
+            addToIndexes(task, positions[i] - i >= oldSize);
+            changes.add(TaskChange.inserted(positions[i], task));
+        }
+        return changes;
+    }
+
+    /**
+     * Removes a task in constant time by leaving it in the list as a tombstone. Must be called with the write
+     * lock, and with the ID index built.
+     */
+    private void removeTask(Task task) {
+        removeFromIndexes(task);
+        ++tombstones;
+        snapshot = null;
+    }
+
+    /**
+     * Puts a task back into the list at the given position, or at the end if the list has since become shorter.
+     * Must be called with the write lock.
+     *
+     * @return The position the task was put at.
+     */
+    private int insertTask(int index, Task task) {
+        compact();
+        int position = index < 0 ? tasks.size() : Math.min(index, tasks.size());
+        tasks.add(position, task);
+        snapshot = null;
+        addToIndexes(task, position == tasks.size() - 1);
+        return position;
+    }
+
+    /**
+     * Adds a task that was put back into the list to the indexes that have been built.
+     *
+     * @param isAtEnd Whether no task follows it in the list.
+     */
+    private void addToIndexes(Task task, boolean isAtEnd) {
+        if (idIndex != null) {
+            idIndex.put(task.getId(), task);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        if (keywordIndex != null) {
+            if (isAtEnd) {
+                keywordIndex.add(task);
+            } else {
+                // Keyword matches are in the order the tasks were indexed, so the index is rebuilt when next used.
+                keywordIndex = null;
+            }
+        }
+        if (expiryQueue != null && isTimed(task)) {
+            expiryQueue.add(task);
+        }
+    }
+
+    private static Task requireTask(Task task, int id) throws FionaException {
+        if (task == null) {
+            throw new FionaException("There is no task with ID #" + id + ".");
+        }
         return task;
     }
 
     /**
      * Delete past Deadlines or Events.
+     * Deadlines and events are kept in a queue ordered by their end time, so only the overdue ones are visited.
+     *
+     * @return The number of tasks deleted.
      */
-    public void purgeOverdueTasks() {
+    public int purgeOverdueTasks() {
+        PurgeEvent event = new PurgeEvent();
+        event.begin();
+        long stamp = lock.writeLock();
+        try {
+            int removed = removeOverdueTasks(LocalDateTime.now());
+            if (removed > 0) {
+                snapshot = null;
+            }
+            event.setRemovedCount(removed);
+            event.setTaskCount(tasks.size() - tombstones);
+            event.commit();
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int removeOverdueTasks(LocalDateTime now) {
+        compact();
+        if (tasks instanceof MappedTaskList) {
+            // Queueing the tasks would decode every record, so the mapped records are checked in place instead.
+            int removed = ((MappedTaskList) tasks).removeExpired(now);
+            if (removed > 0) {
+                dateIndex = null;
+                keywordIndex = null;
+                idIndex = null;
+            }
+            return removed;
+        }
+
+        if (expiryQueue == null) {
+            expiryQueue = new PriorityQueue<>(EXPIRY_ORDER);
+            for (Task task : tasks) {
+                if (isTimed(task)) {
+                    expiryQueue.add(task);
+                }
+            }
+        }
+        Set<Task> overdue = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!expiryQueue.isEmpty() && isBefore(endOf(expiryQueue.peek()), now)) {
+            overdue.add(expiryQueue.poll());
+        }
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+
+        // Tasks deleted since they were queued are simply not found here.
+        int sizeBefore = tasks.size();
         tasks.removeIf(task -> {
-            if (task instanceof Deadline) {
-                return ((Deadline) task).getDeadline().isBefore(LocalDateTime.now());
-            } else if (task instanceof Event) {
-                return ((Event) task).getTo().isBefore(LocalDateTime.now());
+            if (!overdue.contains(task)) {
+                return false;
             }
-            return false;
+            removeFromIndexes(task);
+            return true;
         });
+        return sizeBefore - tasks.size();
+    }
+
+    private static boolean isTimed(Task task) {
+        return task instanceof Deadline || task instanceof Event;
+    }
+
+    private static long endOf(Task task) {
+        return task instanceof Deadline
+                ? ((Deadline) task).getDeadlineEpochMinute()
+                : ((Event) task).getToEpochMinute();
+    }
+
+    /**
+     * Returns whether a date-time stored as minutes since the epoch is before the given date-time.
+     *
+     * @param epochMinute The date-time as minutes since 1970-01-01T00:00.
+     * @param dateTime The date-time to compare with.
+     * @return {@code true} if {@code epochMinute} is strictly before {@code dateTime}.
+     */
+    static boolean isBefore(long epochMinute, LocalDateTime dateTime) {
+        long second = epochMinute * 60;
+        long otherSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        return second < otherSecond || (second == otherSecond && dateTime.getNano() > 0);
+    }
+
+    /**
+     * Returns the deadlines due within the given range and the events overlapping it,
+     * ordered by their due date or start time.
+     *
+     * @param start The start of the range, inclusive.
+     * @param end The end of the range, inclusive.
+     * @return The matching tasks.
+     */
+    public List<Task> findByDate(LocalDateTime start, LocalDateTime end) {
+        return query(() -> dateIndex != null, () -> dateIndex().find(start, end));
+    }
+
+    /**
+     * Returns the tasks whose name contains the given keyword, ignoring case, in list order.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks.
+     */
+    public List<Task> findByKeyword(String keyword) {
+        if (keyword.length() < KeywordIndex.GRAM_LENGTH) {
+            return query(() -> tombstones == 0, () -> scanByKeyword(keyword));
+        }
+        return query(() -> keywordIndex != null, () -> keywordIndex().find(keyword));
+    }
+
+    private List<Task> scanByKeyword(String keyword) {
+        compact();
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (KeywordIndex.containsIgnoreCase(task.getName(), keyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Runs a query under the shared read lock if {@code isReady} says that it will not change the list, such as
+     * by building an index, and under the write lock otherwise.
+     */
+    private <T> T query(BooleanSupplier isReady, Supplier<T> query) {
+        long stamp = lock.readLock();
+        try {
+            if (isReady.getAsBoolean()) {
+                return query.get();
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        stamp = lock.writeLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the ID index, building it on first use. A task whose ID is already taken, which can only
+     * happen in a hand-edited file, is given a new ID.
+     */
+    private Map<Integer, Task> idIndex() {
+        if (idIndex == null) {
+            compact();
+            Map<Integer, Task> index = new HashMap<>();
+            for (Task task : tasks) {
+                if (index.putIfAbsent(task.getId(), task) != null) {
+                    task.setId(Task.nextId());
+                    index.put(task.getId(), task);
+                }
+            }
+            idIndex = index;
+        }
+        return idIndex;
+    }
+
+    private DateIndex dateIndex() {
+        if (dateIndex == null) {
+            compact();
+            dateIndex = new DateIndex(tasks);
+        }
+        return dateIndex;
     }
 
+    private KeywordIndex keywordIndex() {
+        if (keywordIndex == null) {
+            compact();
+            keywordIndex = new KeywordIndex(tasks);
+        }
+        return keywordIndex;
+    }
 
     /**
-     * Returns the list of tasks.
+     * Removes the tombstones left by deletes by ID from the list.
+     */
+    private void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        if (history.hasUnplacedDeletes()) {
+            history.placeDeleted(tasks, task -> idIndex.get(task.getId()) == task);
+        }
+        tasks.removeIf(task -> idIndex.get(task.getId()) != task);
+        tombstones = 0;
+    }
+
+    private void removeFromIndexes(Task task) {
+        if (idIndex != null) {
+            idIndex.remove(task.getId(), task);
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(task);
+        }
+        if (keywordIndex != null) {
+            keywordIndex.remove(task);
+        }
+    }
+
+
+    /**
+     * Returns an immutable snapshot of the tasks. Later changes to the list do not affect the snapshot,
+     * although the tasks in it are the same objects, so marking a task shows in both.
      *
      * @return A {@code List} containing all tasks.
      */
     public List<Task> getTasks() {
-        return this.tasks;
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (snapshot == null) {
+                compact();
+                snapshot = tasks instanceof MappedTaskList
+                        ? ((MappedTaskList) tasks).snapshot()
+                        : List.copyOf(tasks);
+            }
+            return snapshot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -103,6 +786,16 @@ public class TaskList {
      * @return The number of tasks.
      */
     public int size() {
-        return this.tasks.size();
+        long stamp = lock.tryOptimisticRead();
+        int size = this.tasks.size() - tombstones;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = this.tasks.size() - tombstones;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
     }
 }
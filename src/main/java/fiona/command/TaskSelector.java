@@ -0,0 +1,150 @@
+package fiona.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import fiona.task.Task;
+
+/**
+ * The {@code TaskSelector} class selects the tasks that a bulk mark, unmark or delete applies to: the tasks at
+ * some positions in the list, the tasks that are done, or the tasks whose name contains a keyword.
+ *
+ * <p>Positions are kept as sorted, non-overlapping ranges, so a selector such as {@code 1-5000} takes the same
+ * space as a single number, and telling whether a position is selected takes a binary search over the ranges.
+ */
+public final class TaskSelector {
+    /**
+     * The ways of selecting tasks.
+     */
+    private enum Kind {
+        POSITIONS,
+        DONE,
+        KEYWORD
+    }
+
+    private final Kind kind;
+
+    /** The first position of each range, 0-based and in increasing order, or {@code null}. */
+    private final int[] starts;
+
+    /** The position after the last one of each range, or {@code null}. */
+    private final int[] ends;
+
+    /** The keyword to look for, or {@code null}. */
+    private final String keyword;
+
+    private TaskSelector(Kind kind, int[] starts, int[] ends, String keyword) {
+        this.kind = kind;
+        this.starts = starts;
+        this.ends = ends;
+        this.keyword = keyword;
+    }
+
+    /**
+     * Creates a selector of the tasks numbered within any of the given ranges. Ranges may overlap and
+     * come in any order.
+     *
+     * @param ranges The ranges as pairs of the first and last task number, 1-based and inclusive.
+     * @return The corresponding {@code TaskSelector}.
+     */
+    static TaskSelector numbers(List<int[]> ranges) {
+        assert !ranges.isEmpty() : "A selector needs at least one range";
+        List<int[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(range -> range[0]));
+        int[] starts = new int[sorted.size()];
+        int[] ends = new int[sorted.size()];
+        int count = 0;
+        for (int[] range : sorted) {
+            int start = range[0] - 1;
+            int end = range[1];
+            if (count > 0 && start <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                starts[count] = start;
+                ends[count] = end;
+                ++count;
+            }
+        }
+        return new TaskSelector(Kind.POSITIONS, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), null);
+    }
+
+    /**
+     * Creates a selector of the tasks that are done.
+     *
+     * @return The corresponding {@code TaskSelector}.
+     */
+    static TaskSelector done() {
+        return new TaskSelector(Kind.DONE, null, null, null);
+    }
+
+    /**
+     * Creates a selector of the tasks whose name contains the given keyword, ignoring case.
+     *
+     * @param keyword The keyword to look for.
+     * @return The corresponding {@code TaskSelector}.
+     */
+    static TaskSelector keyword(String keyword) {
+        return new TaskSelector(Kind.KEYWORD, null, null, keyword);
+    }
+
+    /**
+     * Returns whether the given task, at the given position in the list, is selected.
+     *
+     * @param position The 0-based position of the task.
+     * @param task The task.
+     * @return {@code true} if the task is selected, {@code false} otherwise.
+     */
+    public boolean matches(int position, Task task) {
+        switch (kind) {
+        case POSITIONS:
+            int range = Arrays.binarySearch(starts, position);
+            if (range < 0) {
+                range = -range - 2;
+            }
+            return range >= 0 && position < ends[range];
+        case DONE:
+            return task.getIsDone();
+        default:
+            return KeywordIndex.containsIgnoreCase(task.getName(), keyword);
+        }
+    }
+
+    /**
+     * Returns whether this selector selects tasks by their position, so that only those positions need
+     * to be visited.
+     *
+     * @return {@code true} if tasks are selected by position, {@code false} if by their contents.
+     */
+    boolean isByPosition() {
+        return kind == Kind.POSITIONS;
+    }
+
+    /**
+     * Returns the highest task number this selector selects by position.
+     *
+     * @return The 1-based task number, or 0 if tasks are not selected by position.
+     */
+    int getLastNumber() {
+        return kind == Kind.POSITIONS ? ends[ends.length - 1] : 0;
+    }
+
+    /**
+     * Passes every selected position below the given size to the given action, in increasing order.
+     * Must only be called if tasks are selected by position.
+     *
+     * @param size The number of tasks in the list.
+     * @param action The action to run for each 0-based position.
+     */
+    void forEachPosition(int size, IntConsumer action) {
+        assert kind == Kind.POSITIONS : "Only positions can be visited";
+        for (int i = 0; i < starts.length && starts[i] < size; i++) {
+            int end = Math.min(ends[i], size);
+            for (int position = starts[i]; position < end; position++) {
+                action.accept(position);
+            }
+        }
+    }
+}
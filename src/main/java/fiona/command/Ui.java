@@ -3,21 +3,42 @@ package fiona.command;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.List;
 
 /**
- *
+ * The {@code Ui} class collects the messages shown to the user.
+ * Messages are kept in a log until {@link #getMessage()} is called, or, once an output is set with
+ * {@link #setOutput(PrintWriter)}, written to that output in bounded chunks as the log fills up, so that
+ * long replies are never held in memory all at once.
  */
 public class Ui {
     private static final String LINE = "-------------------------------------------------------------";
+    private static final int MAX_LOAD_ERRORS_SHOWN = 5;
+
+    /** The number of characters after which the log is written to the output, if there is one. */
+    private static final int CHUNK_SIZE = 8192;
 
     private final BufferedReader reader;
     private final StringBuilder messageLog;
 
+    /** The output the log is streamed to, or {@code null} if it is only returned by {@code getMessage()}. */
+    private PrintWriter output;
+
     /**
      * Constructs a {@code Ui} object and initializes the input reader.
      */
     public Ui() {
-        reader = new BufferedReader(new InputStreamReader(System.in));
+        this(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    /**
+     * Constructs a {@code Ui} object that reads commands from the given reader.
+     *
+     * @param reader The reader to read commands from.
+     */
+    public Ui(BufferedReader reader) {
+        this.reader = reader;
         messageLog = new StringBuilder();
     }
 
@@ -27,6 +48,7 @@ public class Ui {
     public void showLine() {
         // Instead of printing directly, append to the log.
         messageLog.append(LINE).append("\n");
+        writeChunkIfFull();
     }
 
     /**
@@ -48,6 +70,22 @@ public class Ui {
         showLine();
     }
 
+    /**
+     * Displays the problems found while loading tasks, showing only the first few of them.
+     *
+     * @param errors The messages describing the tasks that were skipped while loading.
+     */
+    public void showLoadErrors(List<String> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        showMessage("Skipped " + errors.size() + " task(s) that could not be loaded:");
+        errors.stream().limit(MAX_LOAD_ERRORS_SHOWN).forEach(this::showMessage);
+        if (errors.size() > MAX_LOAD_ERRORS_SHOWN) {
+            showMessage("... and " + (errors.size() - MAX_LOAD_ERRORS_SHOWN) + " more.");
+        }
+    }
+
     /**
      * Reads a command from the user.
      *
@@ -65,6 +103,45 @@ public class Ui {
      */
     public void showMessage(String message) {
         messageLog.append(message).append("\n");
+        writeChunkIfFull();
+    }
+
+    /**
+     * Sets the output that messages are streamed to, or {@code null} to keep every message in the log.
+     *
+     * @param output The output to write messages to.
+     */
+    public void setOutput(PrintWriter output) {
+        this.output = output;
+    }
+
+    /**
+     * Returns whether messages are streamed to an output, so that long replies do not have to be split into pages.
+     *
+     * @return {@code true} if an output is set, {@code false} otherwise.
+     */
+    public boolean isStreaming() {
+        return output != null;
+    }
+
+    /**
+     * Writes the messages still in the log to the output and flushes it.
+     * Without an output, the messages stay in the log.
+     */
+    public void flush() {
+        if (output == null) {
+            return;
+        }
+        output.append(messageLog);
+        messageLog.setLength(0);
+        output.flush();
+    }
+
+    private void writeChunkIfFull() {
+        if (output != null && messageLog.length() >= CHUNK_SIZE) {
+            output.append(messageLog);
+            messageLog.setLength(0);
+        }
     }
 
     /**
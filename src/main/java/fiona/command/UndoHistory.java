@@ -0,0 +1,247 @@
+package fiona.command;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import fiona.task.Task;
+
+/**
+ * The {@code UndoHistory} class keeps the most recent edits of a {@code TaskList} in a ring buffer, so that
+ * they can be undone and redone. Each edit holds just enough to invert it: the tasks, their positions and, for
+ * a change of their done state, the state before. A bulk change is a single edit, undone as a whole.
+ * Once the buffer is full, recording an edit forgets the oldest.
+ *
+ * <p>The history does not change the task list itself, and is guarded by the lock of its task list.
+ */
+final class UndoHistory {
+    /** The number of edits kept by default. */
+    static final int DEFAULT_CAPACITY = 100;
+
+    /**
+     * The kinds of edit that can be undone.
+     */
+    enum Kind {
+        /** A task was added. */
+        ADD,
+
+        /** A task was marked as done or not done. */
+        SET_DONE,
+
+        /** A task was deleted. */
+        DELETE
+    }
+
+    /**
+     * Represents a single edit of the task list, which changes one or more tasks in the same way.
+     */
+    static final class Edit {
+        private final Kind kind;
+        private final List<Task> tasks;
+        private final int[] indexes;
+        private final boolean wasDone;
+        private final long sequence;
+
+        private Edit(Kind kind, List<Task> tasks, int[] indexes, boolean wasDone, long sequence) {
+            this.kind = kind;
+            this.tasks = tasks;
+            this.indexes = indexes;
+            this.wasDone = wasDone;
+            this.sequence = sequence;
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        List<Task> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the position of each task in the list before it was deleted, or after it was added, in
+         * increasing order. Putting the tasks back at these positions in order restores the list.
+         *
+         * @param i The index of the task in {@link #getTasks()}.
+         * @return The 0-based position, or -1 if the task was deleted by ID and is still a tombstone.
+         */
+        int getIndex(int i) {
+            return indexes[i];
+        }
+
+        /**
+         * Returns whether the task was done before the edit.
+         *
+         * @return {@code true} if the task was done before the edit, {@code false} otherwise.
+         */
+        boolean wasDone() {
+            return wasDone;
+        }
+    }
+
+    private final Edit[] edits;
+
+    /** The position in {@code edits} of the oldest edit. */
+    private int first;
+
+    /** The number of edits, from the oldest, that can be undone. */
+    private int undoCount;
+
+    /** The number of edits after the ones that can be undone that can be redone. */
+    private int redoCount;
+
+    /** The number of edits recorded so far, which orders them. */
+    private long recorded;
+
+    /** The deletes by ID whose position is not known until the tombstones are removed from the list. */
+    private final Map<Task, Edit> unplacedDeletes = new IdentityHashMap<>();
+
+    /**
+     * Constructs an empty {@code UndoHistory}.
+     *
+     * @param capacity The number of edits to keep.
+     */
+    UndoHistory(int capacity) {
+        assert capacity > 0 : "An undo history must keep at least one edit";
+        edits = new Edit[capacity];
+    }
+
+    /**
+     * Records that a task was added at the given position.
+     */
+    void recordAdd(Task task, int index) {
+        record(new Edit(Kind.ADD, List.of(task), new int[] {index}, false, ++recorded));
+    }
+
+    /**
+     * Records that a task was marked as done or not done.
+     */
+    void recordSetDone(Task task, boolean wasDone, boolean isDone) {
+        if (wasDone != isDone) {
+            recordSetDone(List.of(task), wasDone);
+        }
+    }
+
+    /**
+     * Records that the given tasks, which were all done or all not done, were changed to the other state.
+     */
+    void recordSetDone(List<Task> tasks, boolean wasDone) {
+        if (!tasks.isEmpty()) {
+            record(new Edit(Kind.SET_DONE, tasks, null, wasDone, ++recorded));
+        }
+    }
+
+    /**
+     * Records that a task was deleted from the given position, or by ID if the position is -1.
+     * The position of a task deleted by ID is filled in by {@link #placeDeleted(List, Predicate)}.
+     */
+    void recordDelete(Task task, int index) {
+        Edit edit = new Edit(Kind.DELETE, List.of(task), new int[] {index}, false, ++recorded);
+        record(edit);
+        if (index < 0) {
+            unplacedDeletes.put(task, edit);
+        }
+    }
+
+    /**
+     * Records that the given tasks were deleted together from the given positions, in increasing order.
+     */
+    void recordDelete(List<Task> tasks, int[] indexes) {
+        if (!tasks.isEmpty()) {
+            record(new Edit(Kind.DELETE, tasks, indexes, false, ++recorded));
+        }
+    }
+
+    private void record(Edit edit) {
+        int capacity = edits.length;
+        for (int i = 0; i < redoCount; i++) {
+            forget(edits[(first + undoCount + i) % capacity]);
+        }
+        redoCount = 0;
+        if (undoCount == capacity) {
+            forget(edits[first]);
+            first = (first + 1) % capacity;
+        } else {
+            ++undoCount;
+        }
+        edits[(first + undoCount - 1) % capacity] = edit;
+    }
+
+    private void forget(Edit edit) {
+        if (edit.kind == Kind.DELETE && edit.tasks.size() == 1) {
+            unplacedDeletes.remove(edit.tasks.get(0), edit);
+        }
+    }
+
+    /**
+     * Returns whether some deletes by ID are waiting for {@link #placeDeleted(List, Predicate)}.
+     */
+    boolean hasUnplacedDeletes() {
+        return !unplacedDeletes.isEmpty();
+    }
+
+    /**
+     * Fills in the positions of the tasks deleted by ID from a list that still holds their tombstones, just
+     * before the tombstones are removed. A task goes back after the tasks before it that are still in the list
+     * and the ones deleted after it, which are put back first.
+     *
+     * @param tasks The list with the tombstones.
+     * @param isLive Returns whether a task in the list is not a tombstone.
+     */
+    void placeDeleted(List<Task> tasks, Predicate<Task> isLive) {
+        List<Edit> placed = new ArrayList<>();
+        int live = 0;
+        for (Task task : tasks) {
+            if (isLive.test(task)) {
+                ++live;
+                continue;
+            }
+            Edit edit = unplacedDeletes.remove(task);
+            if (edit == null) {
+                continue;
+            }
+            int deletedLater = 0;
+            for (Edit other : placed) {
+                if (other.sequence > edit.sequence) {
+                    ++deletedLater;
+                }
+            }
+            edit.indexes[0] = live + deletedLater;
+            placed.add(edit);
+            if (unplacedDeletes.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the most recent edit that has not been undone, making it the next one to redo.
+     *
+     * @return The edit to undo, or {@code null} if there is none.
+     */
+    Edit undo() {
+        if (undoCount == 0) {
+            return null;
+        }
+        --undoCount;
+        ++redoCount;
+        return edits[(first + undoCount) % edits.length];
+    }
+
+    /**
+     * Takes the edit that was undone last, making it the next one to undo.
+     *
+     * @return The edit to redo, or {@code null} if there is none.
+     */
+    Edit redo() {
+        if (redoCount == 0) {
+            return null;
+        }
+        Edit edit = edits[(first + undoCount) % edits.length];
+        ++undoCount;
+        --redoCount;
+        return edit;
+    }
+}
@@ -17,7 +17,8 @@ public class Deadline extends Task {
     /** Formatter for parsing and storing dates in a standardized format. */
     private static final DateTimeFormatter STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
 
-    private LocalDateTime deadline;
+    /** The due date as minutes since the epoch. */
+    private long deadline;
 
     /**
      * Constructs a {@code Deadline} task with the specified description and due date.
@@ -27,12 +28,82 @@ public class Deadline extends Task {
      * @throws FionaException If the date-time format is invalid.
      */
     public Deadline(String name, String deadline) throws FionaException {
-        super(name);
+        this(name, parseDeadline(deadline));
+    }
+
+    /**
+     * Constructs a {@code Deadline} task with the specified description and an already parsed due date.
+     *
+     * @param name The description of the deadline task.
+     * @param deadline The due date and time.
+     * @throws FionaException If the due date is in the past.
+     */
+    public Deadline(String name, LocalDateTime deadline) throws FionaException {
+        this(name, deadline, 0);
+    }
+
+    /**
+     * Constructs a {@code Deadline} task with the specified description, an already parsed due date and
+     * a stored ID.
+     *
+     * @param name The description of the deadline task.
+     * @param deadline The due date and time.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     * @throws FionaException If the due date is in the past.
+     */
+    public Deadline(String name, LocalDateTime deadline, int id) throws FionaException {
+        super(name, id);
+        if (deadline.isBefore(LocalDateTime.now())) {
+            throw new FionaException("The deadline cannot be before the today's date.");
+        }
+        this.deadline = toEpochMinute(deadline);
+    }
+
+    private Deadline(String name, LocalDateTime deadline, boolean isDone, int id) {
+        super(name, id);
+        this.deadline = toEpochMinute(deadline);
+        if (isDone) {
+            setDone();
+        }
+    }
+
+    /**
+     * Recreates a stored {@code Deadline} task without checking that its due date is still in the future.
+     * Overdue tasks restored this way are expected to be purged by the task list.
+     *
+     * @param name The description of the deadline task.
+     * @param deadline The due date and time.
+     * @param isDone Whether the task is marked as done.
+     * @return The restored deadline task.
+     */
+    public static Deadline restore(String name, LocalDateTime deadline, boolean isDone) {
+        return restore(name, deadline, isDone, 0);
+    }
+
+    /**
+     * Recreates a stored {@code Deadline} task with its stored ID, without checking that its due date is
+     * still in the future.
+     *
+     * @param name The description of the deadline task.
+     * @param deadline The due date and time.
+     * @param isDone Whether the task is marked as done.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     * @return The restored deadline task.
+     */
+    public static Deadline restore(String name, LocalDateTime deadline, boolean isDone, int id) {
+        return new Deadline(name, deadline, isDone, id);
+    }
+
+    /**
+     * Parses a due date in the "yyyy-MM-dd HHmm" format.
+     *
+     * @param deadline The due date and time to parse.
+     * @return The parsed due date and time.
+     * @throws FionaException If the date-time format is invalid.
+     */
+    public static LocalDateTime parseDeadline(String deadline) throws FionaException {
         try {
-            this.deadline = LocalDateTime.parse(deadline, STORAGE_FORMAT);
-            if (this.deadline.isBefore(LocalDateTime.now())) {
-                throw new FionaException("The deadline cannot be before the today's date.");
-            }
+            return LocalDateTime.parse(deadline, STORAGE_FORMAT);
         } catch (DateTimeParseException e) {
             throw new FionaException("Invalid date-time format for deadline. "
                     + "Please use yyyy-MM-dd HHmm (e.g., 2019-12-02 1800).");
@@ -45,6 +116,15 @@ public class Deadline extends Task {
      * @return The deadline as a {@code LocalDateTime} object.
      */
     public LocalDateTime getDeadline() {
+        return fromEpochMinute(this.deadline);
+    }
+
+    /**
+     * Returns the deadline of the task as minutes since the epoch, without creating a {@code LocalDateTime}.
+     *
+     * @return The deadline as minutes since 1970-01-01T00:00.
+     */
+    public long getDeadlineEpochMinute() {
         return this.deadline;
     }
 
@@ -54,7 +134,7 @@ public class Deadline extends Task {
      * @return The deadline as a string in "yyyy-MM-dd HHmm" format.
      */
     public String getByForStorage() {
-        return this.deadline.format(STORAGE_FORMAT);
+        return getDeadline().format(STORAGE_FORMAT);
     }
 
     /**
@@ -67,6 +147,6 @@ public class Deadline extends Task {
     public String toString() {
         String doneIndicator = super.getIsDone() ? "X" : " ";
         return "[D][" + doneIndicator + "] " + super.getName()
-                + " (by: " + this.deadline.format(DISPLAY_FORMAT) + ")";
+                + " (by: " + getDeadline().format(DISPLAY_FORMAT) + ")";
     }
 }
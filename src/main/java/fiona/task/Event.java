@@ -17,8 +17,11 @@ public class Event extends Task {
     /** Formatter for parsing and storing dates in a standardized format. */
     private static final DateTimeFormatter STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
 
-    private LocalDateTime from;
-    private LocalDateTime to;
+    /** The start time as minutes since the epoch. */
+    private long from;
+
+    /** The end time as minutes since the epoch. */
+    private long to;
 
     /**
      * Constructs an {@code Event} task with the specified description, start time, and end time.
@@ -29,16 +32,91 @@ public class Event extends Task {
      * @throws FionaException If the date-time format is invalid.
      */
     public Event(String description, String from, String to) throws FionaException {
-        super(description);
+        this(description, parseEventTime(from), parseEventTime(to));
+    }
+
+    /**
+     * Constructs an {@code Event} task with the specified description and already parsed start and end times.
+     *
+     * @param description The description of the event.
+     * @param from The start time of the event.
+     * @param to The end time of the event.
+     * @throws FionaException If the start is after the end, or the end is in the past.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) throws FionaException {
+        this(description, from, to, 0);
+    }
+
+    /**
+     * Constructs an {@code Event} task with the specified description, already parsed start and end times,
+     * and a stored ID.
+     *
+     * @param description The description of the event.
+     * @param from The start time of the event.
+     * @param to The end time of the event.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     * @throws FionaException If the start is after the end, or the end is in the past.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to, int id) throws FionaException {
+        super(description, id);
+        if (from.isAfter(to)) {
+            throw new FionaException("Start date time cannot be after end date time.");
+        }
+        if (to.isBefore(LocalDateTime.now())) {
+            throw new FionaException("End date cannot be before today's date.");
+        }
+        this.from = toEpochMinute(from);
+        this.to = toEpochMinute(to);
+    }
+
+    private Event(String description, LocalDateTime from, LocalDateTime to, boolean isDone, int id) {
+        super(description, id);
+        this.from = toEpochMinute(from);
+        this.to = toEpochMinute(to);
+        if (isDone) {
+            setDone();
+        }
+    }
+
+    /**
+     * Recreates a stored {@code Event} task without checking that it has not ended yet.
+     * Overdue tasks restored this way are expected to be purged by the task list.
+     *
+     * @param description The description of the event.
+     * @param from The start time of the event.
+     * @param to The end time of the event.
+     * @param isDone Whether the task is marked as done.
+     * @return The restored event task.
+     */
+    public static Event restore(String description, LocalDateTime from, LocalDateTime to, boolean isDone) {
+        return restore(description, from, to, isDone, 0);
+    }
+
+    /**
+     * Recreates a stored {@code Event} task with its stored ID, without checking that it has not ended yet.
+     *
+     * @param description The description of the event.
+     * @param from The start time of the event.
+     * @param to The end time of the event.
+     * @param isDone Whether the task is marked as done.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     * @return The restored event task.
+     */
+    public static Event restore(String description, LocalDateTime from, LocalDateTime to, boolean isDone,
+            int id) {
+        return new Event(description, from, to, isDone, id);
+    }
+
+    /**
+     * Parses an event time in the "yyyy-MM-dd HHmm" format.
+     *
+     * @param dateTime The date and time to parse.
+     * @return The parsed date and time.
+     * @throws FionaException If the date-time format is invalid.
+     */
+    public static LocalDateTime parseEventTime(String dateTime) throws FionaException {
         try {
-            this.from = LocalDateTime.parse(from, STORAGE_FORMAT);
-            this.to = LocalDateTime.parse(to, STORAGE_FORMAT);
-            if (this.from.isAfter(this.to)) {
-                throw new FionaException("Start date time cannot be after end date time.");
-            }
-            if (this.to.isBefore(LocalDateTime.now())) {
-                throw new FionaException("End date cannot be before today's date.");
-            }
+            return LocalDateTime.parse(dateTime, STORAGE_FORMAT);
         } catch (DateTimeParseException e) {
             throw new FionaException("Invalid date-time format for event. "
                     + "Please use yyyy-MM-dd HHmm (e.g., 2019-12-02 1800).");
@@ -51,7 +129,7 @@ public class Event extends Task {
      * @return The start time as a {@code LocalDateTime} object.
      */
     public LocalDateTime getFrom() {
-        return this.from;
+        return fromEpochMinute(this.from);
     }
 
     /**
@@ -60,6 +138,24 @@ public class Event extends Task {
      * @return The end time as a {@code LocalDateTime} object.
      */
     public LocalDateTime getTo() {
+        return fromEpochMinute(this.to);
+    }
+
+    /**
+     * Returns the start time of the event as minutes since the epoch, without creating a {@code LocalDateTime}.
+     *
+     * @return The start time as minutes since 1970-01-01T00:00.
+     */
+    public long getFromEpochMinute() {
+        return this.from;
+    }
+
+    /**
+     * Returns the end time of the event as minutes since the epoch, without creating a {@code LocalDateTime}.
+     *
+     * @return The end time as minutes since 1970-01-01T00:00.
+     */
+    public long getToEpochMinute() {
         return this.to;
     }
 
@@ -69,7 +165,7 @@ public class Event extends Task {
      * @return The start time as a string in "yyyy-MM-dd HHmm" format.
      */
     public String getFromForStorage() {
-        return this.from.format(STORAGE_FORMAT);
+        return getFrom().format(STORAGE_FORMAT);
     }
 
     /**
@@ -78,7 +174,7 @@ public class Event extends Task {
      * @return The end time as a string in "yyyy-MM-dd HHmm" format.
      */
     public String getToForStorage() {
-        return this.to.format(STORAGE_FORMAT);
+        return getTo().format(STORAGE_FORMAT);
     }
 
     /**
@@ -91,7 +187,7 @@ public class Event extends Task {
     public String toString() {
         String doneIndicator = super.getIsDone() ? "X" : " ";
         return "[E][" + doneIndicator + "] " + super.getName()
-                + " (from: " + this.from.format(DISPLAY_FORMAT) + " to: "
-                + this.to.format(DISPLAY_FORMAT) + ")";
+                + " (from: " + getFrom().format(DISPLAY_FORMAT) + " to: "
+                + getTo().format(DISPLAY_FORMAT) + ")";
     }
 }
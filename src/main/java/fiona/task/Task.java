@@ -1,16 +1,20 @@
 package fiona.task;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * The {@code Task} class represents a general task with an ID, name, and completion status.
  * It serves as an abstract base class for specific task types such as {@code Todo},
  * {@code Deadline}, and {@code Event}.
  */
 public abstract class Task {
-    private static int numOfTask = 0;
+    private static final AtomicInteger NUM_OF_TASKS = new AtomicInteger();
 
     private int id;
     private String name;
-    private boolean isDone;
+    private volatile boolean isDone;
 
     /**
      * Constructs a new {@code Task} with the specified name.
@@ -19,10 +23,27 @@ public abstract class Task {
      * @param name The name or description of the task.
      */
     public Task(String name) {
+        this(name, 0);
+    }
+
+    /**
+     * Constructs a {@code Task} with the specified name and stored ID, such as when restoring it from storage.
+     * Restoring a task does not use up a new ID, and tasks created afterwards are always given larger IDs,
+     * so IDs never collide across restarts.
+     *
+     * @param name The name or description of the task.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     */
+    protected Task(String name, int id) {
         assert name != null : "Task name cannot be null";
         assert !name.isEmpty() : "Task name cannot be empty";
-        ++numOfTask;
-        this.id = numOfTask;
+        assert id >= 0 : "Task ID cannot be negative";
+        if (id > 0) {
+            reserveIds(id);
+            this.id = id;
+        } else {
+            this.id = nextId();
+        }
         this.name = name;
         this.isDone = false;
     }
@@ -36,6 +57,67 @@ public abstract class Task {
         return this.id;
     }
 
+    /**
+     * Assigns another ID to the task, such as when its stored ID turns out to be taken.
+     * Tasks created afterwards are always given larger IDs, so IDs never collide across restarts.
+     *
+     * @param id The ID of the task.
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task ID must be positive";
+        this.id = id;
+        reserveIds(id);
+    }
+
+    /**
+     * Returns a new task ID that is larger than every ID given out or restored so far.
+     *
+     * @return The new task ID.
+     */
+    public static int nextId() {
+        return NUM_OF_TASKS.incrementAndGet();
+    }
+
+    /**
+     * Returns the largest task ID given out or restored so far.
+     *
+     * @return The largest task ID, or 0 if there is none.
+     */
+    public static int getLastId() {
+        return NUM_OF_TASKS.get();
+    }
+
+    /**
+     * Ensures that tasks created afterwards are given IDs larger than the given one.
+     *
+     * @param lastId The largest ID that is already in use.
+     */
+    public static void reserveIds(int lastId) {
+        NUM_OF_TASKS.accumulateAndGet(lastId, Math::max);
+    }
+
+    /**
+     * Converts a date-time into minutes since the epoch, dropping any seconds.
+     * Deadlines and events store their date-times this way, which takes a fraction of the memory of
+     * a {@code LocalDateTime} and lets them be compared without creating any objects.
+     *
+     * @param dateTime The date-time to convert.
+     * @return The number of minutes since 1970-01-01T00:00.
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts minutes since the epoch into a date-time.
+     *
+     * @param epochMinute The number of minutes since 1970-01-01T00:00.
+     * @return The corresponding date-time.
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
     /**
      * Returns the name or description of the task.
      *
@@ -15,6 +15,16 @@ public class Todo extends Task {
         super(name);
     }
 
+    /**
+     * Constructs a {@code Todo} task with the specified name and stored ID.
+     *
+     * @param name The name or description of the todo task.
+     * @param id The stored ID of the task, or 0 to give it a new one.
+     */
+    public Todo(String name, int id) {
+        super(name, id);
+    }
+
     /**
      * Returns a string representation of the todo task, including its status.
      *
@@ -0,0 +1,84 @@
+package fiona.task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fiona.command.Fiona;
+import fiona.command.FionaServer;
+import fiona.command.TaskList;
+import fiona.command.Ui;
+
+public class FionaServerTest {
+    @Test
+    void serve_concurrentSessions_shareTaskList() throws Exception {
+        TaskList tasks = new TaskList();
+        Fiona fiona = new Fiona(new FionaTest.DummyStorage(), tasks, new Ui());
+        int sessions = 4;
+        int commandsPerSession = 50;
+        try (FionaServer server = new FionaServer(fiona, new InetSocketAddress("localhost", 0))) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            acceptor.start();
+            int port = ((InetSocketAddress) server.getAddress()).getPort();
+
+            List<Thread> clients = new ArrayList<>();
+            List<String> lastReplies = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                int session = i;
+                Thread client = new Thread(() -> {
+                    try (Socket socket = new Socket("localhost", port);
+                            BufferedReader in = new BufferedReader(new InputStreamReader(
+                                    socket.getInputStream(), StandardCharsets.UTF_8));
+                            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                        String reply = readReply(in);
+                        for (int j = 0; j < commandsPerSession; j++) {
+                            out.println("todo session " + session + " task " + j);
+                            reply = readReply(in);
+                        }
+                        synchronized (lastReplies) {
+                            lastReplies.add(reply);
+                        }
+                        out.println("bye");
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                clients.add(client);
+                client.start();
+            }
+            for (Thread client : clients) {
+                client.join();
+            }
+
+            Assertions.assertEquals(sessions * commandsPerSession, tasks.size());
+            Assertions.assertEquals(sessions, lastReplies.size());
+            for (String reply : lastReplies) {
+                Assertions.assertTrue(reply.contains("Got it. I've added this task:"), reply);
+            }
+        }
+    }
+
+    private static String readReply(BufferedReader in) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            reply.append(line).append('\n');
+        }
+        return reply.toString();
+    }
+}
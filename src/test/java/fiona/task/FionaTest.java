@@ -1,12 +1,20 @@
 package fiona.task;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import fiona.command.Fiona;
 import fiona.command.FionaException;
@@ -15,11 +23,16 @@ import fiona.command.TaskList;
 import fiona.command.Ui;
 
 public class FionaTest {
+    @TempDir
+    Path tempDir;
+
     private Fiona fiona;
     private TaskList testTaskList;
+    private DummyStorage dummyStorage;
 
     static class DummyStorage extends Storage {
         private ArrayList<Task> tasks = new ArrayList<>();
+        private int saveCount;
 
         public DummyStorage() {
             super("dummyPath");
@@ -33,18 +46,30 @@ public class FionaTest {
         @Override
         public void save(List<Task> tasks) {
             this.tasks = new ArrayList<>(tasks);
+            ++saveCount;
         }
     }
 
     @BeforeEach
     void setUp() {
-        Storage dummyStorage = new DummyStorage();
+        dummyStorage = new DummyStorage();
         testTaskList = new TaskList();
         Ui ui = new Ui();
 
         fiona = new Fiona(dummyStorage, testTaskList, ui);
     }
 
+    @Test
+    void constructor_nothingToPurge_fileNotRewritten() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        Files.write(file, List.of("T | 0 | read book"));
+        FileTime written = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, written);
+
+        new Fiona(file.toString()).flush().join();
+        Assertions.assertEquals(written, Files.getLastModifiedTime(file));
+    }
+
     @Test
     void addDeadline_validArgs_success() throws IOException, FionaException {
         String input = "deadline submit assignment /by 2035-01-31 2359";
@@ -77,4 +102,146 @@ public class FionaTest {
         Assertions.assertTrue(ex.getMessage().contains("Invalid date-time format for deadline."),
                 "Expected invalid date-time format error message.");
     }
+
+    @Test
+    void runBatch_manyCommands_savesOnceAndPrintsEachResult() throws IOException {
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            commands.append("todo task ").append(i).append("\n");
+        }
+        commands.append("mark 1\nunknown\nbye\ntodo after bye\n");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        fiona.runBatch(new BufferedReader(new StringReader(commands.toString())), new PrintStream(output), 0);
+
+        Assertions.assertEquals(100, testTaskList.size());
+        Assertions.assertEquals(1, dummyStorage.saveCount);
+        Assertions.assertEquals(100, dummyStorage.tasks.size());
+        String printed = output.toString();
+        Assertions.assertTrue(printed.contains("Now you have 100 task(s) in the list."));
+        Assertions.assertTrue(printed.contains("Nice! I've marked this task as done:"));
+        Assertions.assertTrue(printed.contains("[T][X] task 0 (#" + testTaskList.getTasks().get(0).getId() + ")"));
+        Assertions.assertTrue(printed.contains("I'm sorry, but I don't know what that means :-("));
+        Assertions.assertFalse(printed.contains("after bye"));
+    }
+
+    @Test
+    void processCommand_undoDelete_restoresTaskWithOneSave() throws IOException, FionaException {
+        fiona.processCommand("todo read book");
+        fiona.processCommand("todo return book");
+        fiona.processCommand("delete 1");
+        fiona.flush().join();
+        int savesBefore = dummyStorage.saveCount;
+
+        fiona.processCommand("undo");
+        fiona.flush().join();
+
+        Assertions.assertEquals(savesBefore + 1, dummyStorage.saveCount);
+        Assertions.assertEquals("[T][ ] read book", dummyStorage.tasks.get(0).toString());
+        fiona.processCommand("redo");
+        Assertions.assertEquals(1, testTaskList.size());
+        Assertions.assertThrows(FionaException.class, () -> fiona.processCommand("redo"));
+    }
+
+    @Test
+    void processCommand_bulkDelete_savesOnce() throws IOException, FionaException {
+        for (int i = 1; i <= 5; i++) {
+            fiona.processCommand("todo task " + i);
+        }
+        fiona.flush().join();
+        int savesBefore = dummyStorage.saveCount;
+
+        fiona.processCommand("delete 1,3-4");
+        fiona.flush().join();
+
+        Assertions.assertEquals(savesBefore + 1, dummyStorage.saveCount);
+        Assertions.assertEquals(2, dummyStorage.tasks.size());
+        Assertions.assertEquals("task 5", dummyStorage.tasks.get(1).getName());
+    }
+
+    @Test
+    void runBatch_saveInterval_savesEveryIntervalAndAtEnd() throws IOException {
+        String commands = "todo a\ntodo b\ntodo c\ntodo d\ntodo e\n";
+
+        fiona.runBatch(new BufferedReader(new StringReader(commands)), new PrintStream(new ByteArrayOutputStream()), 2);
+
+        Assertions.assertEquals(3, dummyStorage.saveCount);
+        Assertions.assertEquals(5, dummyStorage.tasks.size());
+    }
+
+    @Test
+    void processCommand_changesDuringSlowSave_savedTogether() throws IOException, FionaException {
+        DummyStorage slowStorage = new DummyStorage() {
+            @Override
+            public void save(List<Task> tasks) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.save(tasks);
+            }
+        };
+        TaskList tasks = new TaskList();
+        Fiona slowFiona = new Fiona(slowStorage, tasks, new Ui());
+
+        for (int i = 0; i < 20; i++) {
+            slowFiona.processCommand("todo task " + i);
+        }
+        Assertions.assertTrue(slowStorage.saveCount < 20, "Changes should be saved after the commands return");
+        slowFiona.flush().join();
+
+        Assertions.assertTrue(slowStorage.saveCount < 20, "Changes made during a save should be saved together");
+        Assertions.assertEquals(20, slowStorage.tasks.size());
+    }
+
+    @Test
+    void list_withoutStreamingOutput_showsOnePage() throws IOException, FionaException {
+        for (int i = 0; i < 250; i++) {
+            testTaskList.add(new Todo("task " + i));
+        }
+        fiona.getWelcomeMessage();
+
+        fiona.processCommand("list");
+        String firstPage = fiona.getWelcomeMessage();
+        Assertions.assertTrue(firstPage.contains("100. [T][ ] task 99"), firstPage);
+        Assertions.assertFalse(firstPage.contains("101. "), firstPage);
+        Assertions.assertTrue(firstPage.contains("Showing 1-100 of 250. Add --page 2"), firstPage);
+
+        fiona.processCommand("list 201-300");
+        String lastPage = fiona.getWelcomeMessage();
+        Assertions.assertTrue(lastPage.contains("250. [T][ ] task 249"), lastPage);
+        Assertions.assertTrue(lastPage.contains("Showing 201-250 of 250."), lastPage);
+    }
+
+    @Test
+    void runBatch_list_streamsEveryTask() throws IOException {
+        for (int i = 0; i < 250; i++) {
+            testTaskList.add(new Todo("task " + i));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        fiona.runBatch(new BufferedReader(new StringReader("list\n")), new PrintStream(output), 0);
+
+        String printed = output.toString();
+        Assertions.assertTrue(printed.contains("250. [T][ ] task 249"));
+        Assertions.assertFalse(printed.contains("Showing"));
+    }
+
+    @Test
+    void stats_afterCommands_reportsEachAction() throws IOException, FionaException {
+        fiona.processCommand("todo read book");
+        fiona.flush().join();
+        fiona.processCommand("todo write essay");
+        fiona.flush().join();
+        Assertions.assertThrows(FionaException.class, () -> fiona.processCommand("mark 5"));
+        fiona.getWelcomeMessage();
+
+        fiona.processCommand("stats");
+
+        String stats = fiona.getWelcomeMessage();
+        Assertions.assertTrue(stats.contains("todo: 2 run(s)"), stats);
+        Assertions.assertTrue(stats.contains("mark: 1 run(s)") && stats.contains("1 error(s)"), stats);
+        Assertions.assertEquals(2, fiona.getMetrics().getSaveLatency().getCount());
+    }
 }
@@ -0,0 +1,264 @@
+package fiona.task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fiona.command.FionaException;
+import fiona.command.JournalStorage;
+import fiona.command.Parser;
+import fiona.command.SyncPolicy;
+import fiona.command.TaskChange;
+import fiona.command.TaskList;
+import fiona.command.TaskSelector;
+
+public class JournalStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void load_afterChanges_replaysJournal() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+
+        Task read = new Todo("read book");
+        tasks.add(read);
+        storage.saveChange(tasks, TaskChange.added(0, read));
+        Task deadline = new Deadline("submit report", "2035-01-31 2359");
+        tasks.add(deadline);
+        storage.saveChange(tasks, TaskChange.added(1, deadline));
+        storage.saveChange(tasks, TaskChange.marked(1, tasks.mark(1)));
+        storage.saveChange(tasks, TaskChange.deleted(0, tasks.delete(0)));
+
+        Assertions.assertFalse(Files.exists(tempDir.resolve("fiona.txt")), "Changes should only be journaled.");
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(1, loaded.size());
+        Assertions.assertEquals(deadline.toString(), loaded.get(0).toString());
+        Assertions.assertTrue(loaded.get(0).getIsDone());
+    }
+
+    @Test
+    void saveChange_missingDirectory_createsDirectory() throws IOException {
+        String filePath = tempDir.resolve("data").resolve("nested").resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+
+        Task read = new Todo("read book");
+        tasks.add(read);
+        storage.saveChange(tasks, TaskChange.added(0, read));
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(1, loaded.size());
+        Assertions.assertEquals(read.toString(), loaded.get(0).toString());
+    }
+
+    @Test
+    void load_nonAsciiName_replaysSameName() throws IOException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+
+        Task task = new Todo("caf\u00e9 t\u00fcr \u65e5\u672c");
+        tasks.add(task);
+        storage.saveChange(tasks, TaskChange.added(0, task));
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(1, loaded.size());
+        Assertions.assertEquals("caf\u00e9 t\u00fcr \u65e5\u672c", loaded.get(0).getName());
+    }
+
+    @Test
+    void load_afterUndoneDelete_restoresTaskInPlace() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 3; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveChange(tasks, TaskChange.added(i, todo));
+        }
+        storage.saveChange(tasks, TaskChange.deleted(1, tasks.delete(1)));
+        storage.saveChanges(tasks, tasks.undo());
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(3, loaded.size());
+        Assertions.assertEquals("[T][ ] task 1", loaded.get(1).toString());
+    }
+
+    @Test
+    void load_afterBulkDeleteUndone_restoresOrder() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 5; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveChange(tasks, TaskChange.added(i, todo));
+        }
+        tasks.markAll(selector("mark 1,2"));
+        for (Task deleted : tasks.deleteAll(selector("delete done"))) {
+            storage.saveChange(tasks, TaskChange.deleted(-1, deleted));
+        }
+        storage.saveChanges(tasks, tasks.undo());
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(5, loaded.size());
+        Assertions.assertEquals("[T][X] task 1", loaded.get(1).toString());
+        Assertions.assertEquals("[T][ ] task 4", loaded.get(4).toString());
+    }
+
+    private static TaskSelector selector(String command) throws FionaException {
+        return Parser.parse(command).getSelector();
+    }
+
+    @Test
+    void saveChange_pastThreshold_compactsIntoSnapshot() throws IOException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath, 2);
+        TaskList tasks = new TaskList();
+
+        for (int i = 0; i < 5; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveChange(tasks, TaskChange.added(i, todo));
+        }
+
+        List<Task> loaded = storage.load();
+        Assertions.assertEquals(5, loaded.size());
+        Assertions.assertEquals("[T][ ] task 4", loaded.get(4).toString());
+        Assertions.assertTrue(Files.exists(tempDir.resolve("fiona.txt")), "The journal should have been compacted.");
+        Assertions.assertFalse(Files.exists(tempDir.resolve("fiona.txt.tmp")));
+    }
+
+    @Test
+    void saveChanges_belowThreshold_takesNoSnapshot() throws IOException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath, 3);
+        List<Task> tasks = new ArrayList<>();
+        int[] snapshots = new int[1];
+
+        for (int i = 0; i < 3; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            boolean isCompacting = storage.needsSnapshot(1);
+            Assertions.assertEquals(i == 2, isCompacting);
+            List<Task> snapshot = isCompacting ? List.copyOf(tasks) : null;
+            storage.saveChanges(() -> {
+                ++snapshots[0];
+                return snapshot;
+            }, List.of(TaskChange.added(i, todo)));
+        }
+
+        Assertions.assertEquals(1, snapshots[0]);
+        List<Task> loaded = storage.load();
+        Assertions.assertEquals(3, loaded.size());
+        Assertions.assertTrue(Files.exists(tempDir.resolve("fiona.txt")), "The journal should have been compacted.");
+    }
+
+    @Test
+    void saveChange_idleAfterBurst_forcesJournalWithinInterval() throws IOException, InterruptedException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath, SyncPolicy.every(1000));
+        TaskList tasks = new TaskList();
+
+        for (int i = 0; i < 5; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveChange(tasks, TaskChange.added(i, todo));
+        }
+        Assertions.assertTrue(storage.isSyncDue(), "The end of the burst should wait for the interval.");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (storage.isSyncDue() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(storage.isSyncDue(), "The end of the burst should be forced without another write.");
+    }
+
+    @Test
+    void load_recordsForOverdueTask_replayedWithoutErrors() throws IOException {
+        Path snapshot = tempDir.resolve("fiona.txt");
+        Files.write(snapshot, List.of("D | 0 | old report | 2020-01-31 2359 | #7", "T | 0 | read book | #8"));
+        Files.write(tempDir.resolve("fiona.txt.journal"), List.of("M | #7", "X | #8"));
+        JournalStorage storage = new JournalStorage(snapshot.toString());
+
+        List<Task> loaded = storage.load();
+
+        Assertions.assertEquals(List.of(), storage.getLoadErrors());
+        Assertions.assertEquals(1, loaded.size());
+        Assertions.assertTrue(loaded.get(0).getIsDone());
+    }
+
+    @Test
+    void load_interruptedCompaction_replaysAsideJournal() throws IOException {
+        Path snapshot = tempDir.resolve("fiona.txt");
+        Files.write(snapshot, List.of("T | 0 | first"));
+        Files.write(tempDir.resolve("fiona.txt.journal.compacting"), List.of("A | T | 0 | second"));
+        Files.write(tempDir.resolve("fiona.txt.journal"), List.of("M | 1"));
+        Files.createFile(tempDir.resolve("fiona.txt.tmp"));
+
+        List<Task> loaded = new JournalStorage(snapshot.toString()).load();
+        Assertions.assertEquals(2, loaded.size());
+        Assertions.assertEquals("[T][X] second", loaded.get(1).toString());
+    }
+
+    @Test
+    void load_completedCompaction_skipsAsideJournal() throws IOException {
+        Path snapshot = tempDir.resolve("fiona.txt");
+        Files.write(snapshot, List.of("T | 0 | first", "T | 0 | second"));
+        Files.write(tempDir.resolve("fiona.txt.journal.compacting"), List.of("A | T | 0 | second"));
+
+        List<Task> loaded = new JournalStorage(snapshot.toString()).load();
+        Assertions.assertEquals(2, loaded.size());
+    }
+
+    @Test
+    void load_changesById_replaysAgainstSameTasks() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 3; i++) {
+            Task todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.saveChange(tasks, TaskChange.added(i, todo));
+        }
+        Task first = tasks.getTasks().get(0);
+        Task last = tasks.getTasks().get(2);
+
+        storage.saveChange(tasks, TaskChange.deleted(-1, tasks.deleteById(first.getId())));
+        storage.saveChange(tasks, TaskChange.marked(-1, tasks.markById(last.getId())));
+
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(2, loaded.size());
+        Assertions.assertEquals(last.getId(), loaded.get(1).getId());
+        Assertions.assertTrue(loaded.get(1).getIsDone());
+    }
+
+    @Test
+    void saveChanges_severalChanges_appendsAllRecords() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.txt").toString();
+        JournalStorage storage = new JournalStorage(filePath);
+        TaskList tasks = new TaskList();
+        Task read = new Todo("read book");
+        Task write = new Todo("write essay");
+        tasks.add(read);
+        tasks.add(write);
+
+        storage.saveChanges(tasks, List.of(TaskChange.added(0, read), TaskChange.added(1, write),
+                TaskChange.marked(-1, tasks.markById(write.getId()))));
+
+        Assertions.assertEquals(3, Files.readAllLines(tempDir.resolve("fiona.txt.journal")).size());
+        List<Task> loaded = new JournalStorage(filePath).load();
+        Assertions.assertEquals(2, loaded.size());
+        Assertions.assertTrue(loaded.get(1).getIsDone());
+    }
+}
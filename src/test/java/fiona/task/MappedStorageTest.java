@@ -0,0 +1,128 @@
+package fiona.task;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fiona.command.FionaException;
+import fiona.command.MappedStorage;
+import fiona.command.Storage;
+import fiona.command.StorageFormat;
+import fiona.command.SyncPolicy;
+import fiona.command.TaskList;
+
+public class MappedStorageTest {
+    @TempDir
+    Path tempDir;
+
+    private String writeBinaryFile(List<Task> tasks) throws IOException {
+        String filePath = tempDir.resolve("fiona.bin").toString();
+        Storage storage = new Storage(filePath, SyncPolicy.NEVER);
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(tasks);
+        return filePath;
+    }
+
+    @Test
+    void load_binaryFile_decodesOnAccess() throws IOException, FionaException {
+        String filePath = writeBinaryFile(List.of(new Todo("read book"),
+                new Deadline("submit report", "2035-01-31 2359"),
+                new Event("Team meeting", "2035-02-20 1400", "2035-02-20 1500")));
+
+        List<Task> tasks = new MappedStorage(filePath, SyncPolicy.NEVER).load();
+
+        Assertions.assertEquals(3, tasks.size());
+        Assertions.assertEquals("[E][ ] Team meeting (from: Feb 20 2035 14:00 to: Feb 20 2035 15:00)",
+                tasks.get(2).toString());
+        Assertions.assertSame(tasks.get(2), tasks.get(2), "Decoded tasks should be kept.");
+    }
+
+    @Test
+    void save_afterChanges_keepsUntouchedAndChangedTasks() throws IOException, FionaException {
+        String filePath = writeBinaryFile(List.of(new Todo("first"), new Todo("second"), new Todo("third")));
+        MappedStorage storage = new MappedStorage(filePath, SyncPolicy.NEVER);
+        TaskList tasks = new TaskList(storage.load());
+
+        tasks.mark(1);
+        tasks.delete(0);
+        tasks.add(new Todo("fourth"));
+        storage.save(tasks.getTasks());
+
+        List<Task> reloaded = new MappedStorage(filePath, SyncPolicy.NEVER).load();
+        Assertions.assertEquals(3, reloaded.size());
+        Assertions.assertEquals("[T][X] second", reloaded.get(0).toString());
+        Assertions.assertEquals("[T][ ] third", reloaded.get(1).toString());
+        Assertions.assertEquals("[T][ ] fourth", reloaded.get(2).toString());
+    }
+
+    @Test
+    void purgeOverdueTasks_mappedList_removesExpiredRecords() throws IOException, FionaException {
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        String filePath = writeBinaryFile(List.of(Deadline.restore("overdue", past, false),
+                new Todo("read book"), Event.restore("old meeting", past.minusHours(1), past, true)));
+        TaskList tasks = new TaskList(new MappedStorage(filePath, SyncPolicy.NEVER).load());
+
+        tasks.purgeOverdueTasks();
+
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertEquals("[T][ ] read book", tasks.getTasks().get(0).toString());
+    }
+
+    @Test
+    void purgeOverdueTasks_afterSave_usesRewrittenIndex() throws IOException, FionaException {
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+        String filePath = writeBinaryFile(List.of(new Todo("first"), Deadline.restore("later", future, false),
+                new Todo("second"), new Todo("third"), Event.restore("upcoming", future, future.plusHours(1), false)));
+        MappedStorage storage = new MappedStorage(filePath, SyncPolicy.NEVER);
+        TaskList tasks = new TaskList(storage.load());
+
+        tasks.delete(2);
+        tasks.add(Deadline.restore("overdue", past, false));
+        storage.save(tasks.getTasks());
+        TaskList reloaded = new TaskList(new MappedStorage(filePath, SyncPolicy.NEVER).load());
+        reloaded.purgeOverdueTasks();
+
+        List<Task> remaining = reloaded.getTasks();
+        Assertions.assertEquals(4, remaining.size());
+        Assertions.assertEquals("[T][ ] first", remaining.get(0).toString());
+        Assertions.assertEquals("later", remaining.get(1).getName());
+        Assertions.assertEquals("[T][ ] third", remaining.get(2).toString());
+        Assertions.assertEquals("upcoming", remaining.get(3).getName());
+    }
+
+    @Test
+    void load_fileWithoutRecordIndex_isUpgradedOnSave() throws IOException, FionaException {
+        String filePath = tempDir.resolve("fiona.bin").toString();
+        int id = Task.getLastId() + 1;
+        byte[] name = "old todo".getBytes(StandardCharsets.UTF_8);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(filePath))) {
+            out.writeInt(0x46494F4E);
+            out.writeShort(2);
+            out.writeInt(1);
+            out.writeInt(id);
+            out.writeByte('T');
+            out.writeBoolean(true);
+            out.writeInt(id);
+            out.writeInt(name.length);
+            out.write(name);
+        }
+        MappedStorage storage = new MappedStorage(filePath, SyncPolicy.NEVER);
+
+        List<Task> tasks = storage.load();
+        storage.save(tasks);
+
+        List<Task> reloaded = new MappedStorage(filePath, SyncPolicy.NEVER).load();
+        Assertions.assertEquals(1, reloaded.size());
+        Assertions.assertEquals("[T][X] old todo", reloaded.get(0).toString());
+        Assertions.assertEquals(id, reloaded.get(0).getId());
+    }
+}
@@ -0,0 +1,64 @@
+package fiona.task;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fiona.command.Action;
+import fiona.command.LatencyHistogram;
+import fiona.command.Metrics;
+
+public class MetricsTest {
+    @Test
+    void getPercentile_uniformValues_withinSubBucketAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        Assertions.assertEquals(100_000, histogram.getCount());
+        Assertions.assertEquals(100_000_000, histogram.getMax());
+        assertWithin(50_000_000, histogram.getPercentile(50), 0.07);
+        assertWithin(99_000_000, histogram.getPercentile(99), 0.07);
+        Assertions.assertEquals(100_000_000, histogram.getPercentile(100));
+        assertWithin(50_000_500, (long) histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void getPercentile_emptyOrSmallValues_exact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0, histogram.getPercentile(99));
+
+        histogram.record(3);
+        histogram.record(-5);
+
+        Assertions.assertEquals(0, histogram.getPercentile(50));
+        Assertions.assertEquals(3, histogram.getPercentile(99));
+    }
+
+    @Test
+    void report_recordedCommands_listsActionsAndErrors() {
+        Metrics metrics = new Metrics();
+        metrics.recordParse(2_000);
+        metrics.recordExecute(Action.TODO, 10_000, true);
+        metrics.recordExecute(Action.TODO, 20_000, true);
+        metrics.recordExecute(Action.MARK, 5_000, false);
+        metrics.recordSave(1_000_000);
+
+        List<String> report = metrics.report();
+
+        Assertions.assertEquals(3, metrics.getCommandCount());
+        Assertions.assertEquals(Long.valueOf(1), metrics.getErrorCounts().get("mark"));
+        Assertions.assertEquals(2, metrics.getExecuteLatencies().get("todo").getCount());
+        Assertions.assertTrue(report.get(0).startsWith("Commands: 3"));
+        Assertions.assertTrue(report.stream().anyMatch(line -> line.contains("mark: 1 run(s)")
+                && line.endsWith("1 error(s)")));
+        Assertions.assertTrue(report.get(report.size() - 1).startsWith("Save: 1 run(s)"));
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected * tolerance,
+                "Expected about " + expected + " but got " + actual);
+    }
+}
@@ -0,0 +1,117 @@
+package fiona.task;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fiona.command.Action;
+import fiona.command.Command;
+import fiona.command.FionaException;
+import fiona.command.Parser;
+
+public class ParserTest {
+    @Test
+    void parse_mixedCaseKeyword_findsAction() throws FionaException {
+        Command command = Parser.parse("  LiSt  ");
+        Assertions.assertEquals(Action.LIST, command.getAction());
+        Assertions.assertEquals("", command.getArgs());
+    }
+
+    @Test
+    void parse_unknownKeyword_returnsUnknown() throws FionaException {
+        Assertions.assertEquals(Action.UNKNOWN, Parser.parse("blah something").getAction());
+        Assertions.assertEquals(Action.UNKNOWN, Parser.parse("").getAction());
+    }
+
+    @Test
+    void parse_internalActionName_returnsUnknown() throws FionaException {
+        Assertions.assertEquals(Action.UNKNOWN, Parser.parse("find_keyword x").getAction());
+        Assertions.assertEquals(Action.UNKNOWN, Parser.parse("FIND_KEYWORD").getAction());
+        Assertions.assertEquals(Action.UNKNOWN, Parser.parse("unknown").getAction());
+    }
+
+    @Test
+    void parse_event_parsesDescriptionAndTimes() throws FionaException {
+        Command command = Parser.parse("event team meeting /from 2035-02-20 1400 /to 2035-02-20 1500");
+        Assertions.assertEquals(Action.EVENT, command.getAction());
+        Assertions.assertEquals("team meeting", command.getDescription());
+        Assertions.assertEquals(LocalDateTime.of(2035, 2, 20, 14, 0), command.getFrom());
+        Assertions.assertEquals(LocalDateTime.of(2035, 2, 20, 15, 0), command.getTo());
+    }
+
+    @Test
+    void parse_deadlineWithoutDate_throwsException() {
+        FionaException ex = Assertions.assertThrows(FionaException.class, () -> Parser.parse("deadline report /by"));
+        Assertions.assertEquals("Invalid format for deadline. Use: deadline <description> /by <deadline>",
+                ex.getMessage());
+    }
+
+    @Test
+    void parse_findDate_coversWholeDay() throws FionaException {
+        Command command = Parser.parse("find 2035-01-31");
+        Assertions.assertEquals(Action.FIND, command.getAction());
+        Assertions.assertEquals(LocalDateTime.of(2035, 1, 31, 0, 0), command.getFrom());
+        Assertions.assertEquals(LocalDateTime.of(2035, 1, 31, 23, 59), command.getTo());
+        Assertions.assertEquals(Action.FIND_KEYWORD, Parser.parse("find 2035-01-31 report").getAction());
+    }
+
+    @Test
+    void parse_taskReferences_parsesNumberAndId() throws FionaException {
+        Command byNumber = Parser.parse("mark 3");
+        Assertions.assertEquals(3, byNumber.getTaskNumber());
+        Assertions.assertFalse(byNumber.isIdReference());
+
+        Command byId = Parser.parse("delete # 42");
+        Assertions.assertEquals(42, byId.getTaskNumber());
+        Assertions.assertTrue(byId.isIdReference());
+
+        FionaException ex = Assertions.assertThrows(FionaException.class, () -> Parser.parse("unmark two"));
+        Assertions.assertEquals("The task number you specified must be a valid integer!", ex.getMessage());
+    }
+
+    @Test
+    void parse_listRangeOrPage_setsOffsetAndLimit() throws FionaException {
+        Command range = Parser.parse("list 101-200");
+        Assertions.assertEquals(100, range.getOffset());
+        Assertions.assertEquals(100, range.getLimit());
+
+        Command page = Parser.parse("list --page 3");
+        Assertions.assertEquals(2 * Parser.PAGE_SIZE, page.getOffset());
+        Assertions.assertEquals(Parser.PAGE_SIZE, page.getLimit());
+
+        Assertions.assertEquals(Command.NO_LIMIT, Parser.parse("list").getLimit());
+        Assertions.assertThrows(FionaException.class, () -> Parser.parse("list 5-2"));
+        Assertions.assertThrows(FionaException.class, () -> Parser.parse("list --page 0"));
+    }
+
+    @Test
+    void parse_findWithPage_separatesQueryFromPage() throws FionaException {
+        Command keyword = Parser.parse("find book --page 2");
+        Assertions.assertEquals(Action.FIND_KEYWORD, keyword.getAction());
+        Assertions.assertEquals("book", keyword.getDescription());
+        Assertions.assertEquals(Parser.PAGE_SIZE, keyword.getOffset());
+
+        Command date = Parser.parse("find 2035-01-31 --page 1");
+        Assertions.assertEquals(Action.FIND, date.getAction());
+        Assertions.assertEquals(Parser.PAGE_SIZE, date.getLimit());
+    }
+
+    @Test
+    void parse_bulkSelectors_selectsTasks() throws FionaException {
+        Command numbers = Parser.parse("mark 1-3, 7");
+        Assertions.assertEquals(Action.MARK, numbers.getAction());
+        Task todo = new Todo("read book");
+        Assertions.assertTrue(numbers.getSelector().matches(2, todo));
+        Assertions.assertFalse(numbers.getSelector().matches(3, todo));
+        Assertions.assertTrue(numbers.getSelector().matches(6, todo));
+
+        Assertions.assertTrue(Parser.parse("unmark find BOOK").getSelector().matches(0, todo));
+        Assertions.assertFalse(Parser.parse("delete done").getSelector().matches(0, todo));
+        Assertions.assertNull(Parser.parse("delete 3").getSelector());
+        Assertions.assertNull(Parser.parse("delete #12").getSelector());
+        Assertions.assertThrows(FionaException.class, () -> Parser.parse("delete 3,x"));
+        Assertions.assertThrows(FionaException.class, () -> Parser.parse("mark 5-2"));
+        Assertions.assertThrows(FionaException.class, () -> Parser.parse("mark find"));
+    }
+}
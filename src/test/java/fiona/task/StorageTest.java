@@ -0,0 +1,200 @@
+package fiona.task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fiona.command.FionaException;
+import fiona.command.Storage;
+import fiona.command.StorageConverter;
+import fiona.command.StorageFormat;
+import fiona.command.SyncPolicy;
+import fiona.command.TaskList;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void save_existingFile_replacedAtomically() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        Files.write(file, List.of("T | 0 | old task"));
+        Storage storage = new Storage(file.toString(), SyncPolicy.NEVER);
+
+        Task task = new Todo("new task");
+        storage.save(List.of(task));
+
+        Assertions.assertEquals(List.of("L | #" + Task.getLastId(), "T | 0 | new task | #" + task.getId()),
+                Files.readAllLines(file));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("fiona.txt.tmp")), "The temporary file should be renamed.");
+    }
+
+    @Test
+    void load_binaryFile_detectedAndRestored() throws IOException, FionaException {
+        Path file = tempDir.resolve("fiona.bin");
+        Storage storage = new Storage(file.toString());
+        storage.setFormat(StorageFormat.BINARY);
+        Task event = new Event("Team meeting", "2035-02-20 1400", "2035-02-20 1500");
+        event.setDone();
+        storage.save(List.of(new Todo("read book"), new Deadline("submit report", "2035-01-31 2359"), event));
+
+        Storage reloaded = new Storage(file.toString());
+        List<Task> tasks = reloaded.load();
+
+        Assertions.assertEquals(StorageFormat.BINARY, reloaded.getFormat());
+        Assertions.assertEquals(3, tasks.size());
+        Assertions.assertEquals("[T][ ] read book", tasks.get(0).toString());
+        Assertions.assertInstanceOf(Deadline.class, tasks.get(1));
+        Assertions.assertEquals(event.toString(), tasks.get(2).toString());
+    }
+
+    @Test
+    void convert_textToBinaryAndBack_preservesTasks() throws IOException {
+        Path text = tempDir.resolve("fiona.txt");
+        List<String> lines = List.of("T | 1 | read book | #1", "D | 0 | submit report | 2035-01-31 2359 | #2");
+        Files.write(text, lines);
+        Path binary = tempDir.resolve("fiona.bin");
+        Path roundTrip = tempDir.resolve("round-trip.txt");
+
+        Assertions.assertEquals(2, StorageConverter.convert(text.toString(), binary.toString(), StorageFormat.BINARY));
+        StorageConverter.convert(binary.toString(), roundTrip.toString(), StorageFormat.TEXT);
+
+        List<String> roundTripLines = Files.readAllLines(roundTrip);
+        Assertions.assertEquals("L | #" + Task.getLastId(), roundTripLines.get(0));
+        Assertions.assertEquals(lines, roundTripLines.subList(1, roundTripLines.size()));
+    }
+
+    @Test
+    void load_highestIdDeleted_notGivenOutAgain() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        int base = Task.getLastId() + 1000;
+        // The task with the largest ID was deleted before the list was saved, so no live task holds it.
+        Files.write(file, List.of("L | #" + (base + 2), "T | 0 | a | #" + (base + 1)));
+
+        List<Task> tasks = new Storage(file.toString()).load();
+
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertEquals(base + 3, new Todo("c").getId());
+    }
+
+    @Test
+    void load_storedIds_restoredAndNotReused() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        Files.write(file, List.of("T | 0 | read book | #900000",
+                "E | 1 | camp | 2035-03-01 0800 | 2035-03-03 1700 | #7", "T | 0 | written before ids"));
+        Storage storage = new Storage(file.toString());
+
+        List<Task> tasks = storage.load();
+
+        Assertions.assertEquals(900000, tasks.get(0).getId());
+        Assertions.assertEquals(7, tasks.get(1).getId());
+        Assertions.assertTrue(tasks.get(1).getIsDone());
+        Assertions.assertTrue(tasks.get(2).getId() > 900000, "Tasks without a stored ID should get a new one.");
+        Assertions.assertTrue(new Todo("new task").getId() > tasks.get(2).getId());
+    }
+
+    @Test
+    void load_storedIds_doNotUseUpNewIds() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        int base = Task.getLastId() + 1000;
+        Files.write(file, List.of("T | 0 | first | #" + (base + 1), "D | 0 | report | 2035-01-31 2359 | #" + (base + 2),
+                "E | 0 | camp | 2035-03-01 0800 | 2035-03-03 1700 | #" + (base + 3)));
+        Task.reserveIds(base + 5);
+
+        new Storage(file.toString()).load();
+
+        Assertions.assertEquals(base + 6, new Todo("new task").getId());
+    }
+
+    @Test
+    void load_overdueTasks_restoredForPurging() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        Files.write(file, List.of("D | 1 | old report | 2020-01-31 2359", "E | 0 | old camp | 2020-03-01 0800 | "
+                + "2020-03-03 1700", "T | 0 | read book"));
+        Storage storage = new Storage(file.toString());
+
+        TaskList tasks = new TaskList(storage.load());
+
+        Assertions.assertEquals(List.of(), storage.getLoadErrors());
+        Assertions.assertEquals(3, tasks.size());
+        Assertions.assertTrue(tasks.getTasks().get(0).getIsDone());
+        Assertions.assertEquals(2, tasks.purgeOverdueTasks());
+        Assertions.assertEquals("[T][ ] read book", tasks.getTasks().get(0).toString());
+    }
+
+    @Test
+    void load_parallelLoading_keepsOrderAndReportsErrors() throws IOException {
+        Path file = tempDir.resolve("fiona.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            lines.add(i % 25_000 == 0 ? "X | 0 | unknown type " + i : "T | " + (i % 2) + " | task " + i);
+        }
+        Files.write(file, lines);
+        Storage storage = new Storage(file.toString());
+        storage.setParallelLoading(true);
+
+        List<Task> tasks = storage.load();
+
+        Assertions.assertEquals(99_996, tasks.size());
+        Assertions.assertEquals("[T][X] task 1", tasks.get(0).toString());
+        Assertions.assertEquals("[T][X] task 99999", tasks.get(tasks.size() - 1).toString());
+        Assertions.assertEquals(4, storage.getLoadErrors().size());
+        Assertions.assertTrue(storage.getLoadErrors().get(3).contains("unknown type 75000"));
+    }
+
+    @Test
+    void parse_validPolicies_success() {
+        Assertions.assertSame(SyncPolicy.ALWAYS, SyncPolicy.parse("always"));
+        Assertions.assertSame(SyncPolicy.NEVER, SyncPolicy.parse("NEVER"));
+        Assertions.assertEquals("interval:200", SyncPolicy.parse("interval:200").toString());
+    }
+
+    @Test
+    void parse_invalidPolicy_throwsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SyncPolicy.parse("sometimes"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SyncPolicy.parse("interval:soon"));
+    }
+
+    @Test
+    void create_invalidSettings_fallsBackToDefaults() {
+        System.setProperty("fiona.fsync", "sometimes");
+        System.setProperty("fiona.format", "xml");
+        try {
+            Storage storage = Storage.create(tempDir.resolve("fiona.txt").toString());
+
+            Assertions.assertSame(SyncPolicy.ALWAYS, storage.getSyncPolicy());
+            Assertions.assertEquals(StorageFormat.TEXT, storage.getFormat());
+            Assertions.assertEquals(2, storage.getSettingErrors().size());
+            Assertions.assertTrue(storage.getSettingErrors().get(0).contains("sometimes"));
+            Assertions.assertTrue(storage.getSettingErrors().get(1).contains("xml"));
+        } finally {
+            System.clearProperty("fiona.fsync");
+            System.clearProperty("fiona.format");
+        }
+    }
+
+    @Test
+    void shouldSync_intervalPolicy_syncsOncePerInterval() {
+        SyncPolicy policy = SyncPolicy.every(60_000);
+
+        Assertions.assertTrue(policy.shouldSync());
+        Assertions.assertFalse(policy.shouldSync());
+    }
+
+    @Test
+    void getSyncDelayMillis_declinedWrite_forcedWithinInterval() {
+        SyncPolicy policy = SyncPolicy.every(60_000);
+        policy.shouldSync();
+
+        long delayMillis = policy.getSyncDelayMillis();
+        Assertions.assertTrue(delayMillis > 0 && delayMillis <= 60_000, "Delay was " + delayMillis);
+        Assertions.assertEquals(-1, SyncPolicy.NEVER.getSyncDelayMillis());
+        Assertions.assertEquals(-1, SyncPolicy.ALWAYS.getSyncDelayMillis());
+    }
+}
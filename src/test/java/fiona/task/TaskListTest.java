@@ -0,0 +1,309 @@
+package fiona.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fiona.command.FionaException;
+import fiona.command.Parser;
+import fiona.command.TaskChange;
+import fiona.command.TaskList;
+
+public class TaskListTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2035, 1, 1, 0, 0);
+
+    @Test
+    void findByDate_deadlinesAndEvents_returnsMatchesInTimeOrder() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Event("conference", BASE.plusDays(1), BASE.plusDays(3)));
+        tasks.add(new Deadline("submit report", BASE.plusDays(2).plusHours(18)));
+        tasks.add(new Deadline("pay bills", BASE.plusDays(5)));
+
+        List<Task> matches = tasks.findByDate(BASE.plusDays(2), BASE.plusDays(2).plusHours(23).plusMinutes(59));
+
+        Assertions.assertEquals(2, matches.size());
+        Assertions.assertEquals("conference", matches.get(0).getName());
+        Assertions.assertEquals("submit report", matches.get(1).getName());
+    }
+
+    @Test
+    void findByDate_afterDelete_excludesDeletedTask() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("conference", BASE, BASE.plusDays(3)));
+        Assertions.assertEquals(1, tasks.findByDate(BASE.plusDays(1), BASE.plusDays(1)).size());
+
+        tasks.delete(0);
+
+        Assertions.assertTrue(tasks.findByDate(BASE.plusDays(1), BASE.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void findByDate_randomEvents_matchesLinearScan() throws FionaException {
+        Random random = new Random(42);
+        TaskList tasks = new TaskList();
+        tasks.findByDate(BASE, BASE);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime from = BASE.plusHours(random.nextInt(24 * 60));
+            tasks.add(new Event("event " + i, from, from.plusHours(random.nextInt(24 * 7))));
+            if (i % 3 == 0) {
+                tasks.delete(random.nextInt(tasks.size()));
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime start = BASE.plusHours(random.nextInt(24 * 60));
+            LocalDateTime end = start.plusHours(random.nextInt(48));
+            List<String> expected = tasks.getTasks().stream()
+                    .map(task -> (Event) task)
+                    .filter(event -> !event.getTo().isBefore(start) && !event.getFrom().isAfter(end))
+                    .map(Task::getName)
+                    .sorted()
+                    .collect(Collectors.toList());
+            List<String> actual = tasks.findByDate(start, end).stream()
+                    .map(Task::getName)
+                    .sorted()
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void findByKeyword_substringAnyCase_returnsMatchesInListOrder() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("Read BOOK"));
+        tasks.add(new Todo("buy notebook"));
+        tasks.add(new Todo("return books"));
+        tasks.add(new Todo("go jogging"));
+
+        List<String> matches = tasks.findByKeyword("book").stream().map(Task::getName).collect(Collectors.toList());
+
+        Assertions.assertEquals(List.of("Read BOOK", "buy notebook", "return books"), matches);
+        Assertions.assertEquals(3, tasks.findByKeyword("bo").size(), "Short keywords should still match.");
+    }
+
+    @Test
+    void findByKeyword_afterDelete_excludesDeletedTask() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("return book"));
+        Assertions.assertEquals(2, tasks.findByKeyword("book").size());
+
+        tasks.delete(0);
+        tasks.add(new Todo("bookmark page"));
+
+        List<String> matches = tasks.findByKeyword("BOOK").stream().map(Task::getName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("return book", "bookmark page"), matches);
+        Assertions.assertTrue(tasks.findByKeyword("read").isEmpty());
+    }
+
+    @Test
+    void purgeOverdueTasks_pastDeadlinesAndEvents_removesOnlyOverdue() throws FionaException {
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(Deadline.restore("overdue", past, false));
+        tasks.add(new Deadline("submit report", BASE));
+        Assertions.assertEquals(1, tasks.purgeOverdueTasks());
+
+        tasks.add(Event.restore("old meeting", past.minusHours(1), past, false));
+        Task deleted = Deadline.restore("deleted", past, false);
+        tasks.add(deleted);
+        tasks.delete(tasks.size() - 1);
+
+        Assertions.assertEquals(1, tasks.purgeOverdueTasks());
+        Assertions.assertEquals(0, tasks.purgeOverdueTasks());
+        List<String> names = tasks.getTasks().stream().map(Task::getName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("read book", "submit report"), names);
+    }
+
+    @Test
+    void deleteById_middleTask_leavesOthersInOrder() throws FionaException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("first");
+        Task second = new Todo("second");
+        Task third = new Todo("third");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(third);
+
+        Assertions.assertSame(second, tasks.deleteById(second.getId()));
+
+        Assertions.assertEquals(2, tasks.size());
+        Assertions.assertThrows(FionaException.class, () -> tasks.deleteById(second.getId()));
+        Assertions.assertSame(third, tasks.mark(1), "Positions should not count deleted tasks.");
+        Assertions.assertEquals(List.of(first, third), tasks.getTasks());
+    }
+
+    @Test
+    void markById_afterPositionalChanges_findsSameTask() throws FionaException {
+        TaskList tasks = new TaskList();
+        Task kept = new Todo("kept");
+        tasks.add(new Todo("removed"));
+        tasks.add(kept);
+        tasks.delete(0);
+
+        Assertions.assertSame(kept, tasks.markById(kept.getId()));
+        Assertions.assertTrue(kept.getIsDone());
+        Assertions.assertSame(kept, tasks.unmarkById(kept.getId()));
+        Assertions.assertFalse(kept.getIsDone());
+        FionaException ex = Assertions.assertThrows(FionaException.class, () -> tasks.markById(-1));
+        Assertions.assertTrue(ex.getMessage().contains("#-1"));
+    }
+
+    @Test
+    void undo_deletesByPositionAndId_restoresOriginalOrder() throws FionaException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("first");
+        Task second = new Todo("second");
+        Task third = new Todo("third");
+        Task fourth = new Todo("fourth");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(third);
+        tasks.add(fourth);
+        tasks.delete(1);
+        tasks.deleteById(fourth.getId());
+        tasks.deleteById(first.getId());
+        Assertions.assertEquals(List.of(third), tasks.getTasks());
+
+        TaskChange restored = tasks.undo().get(0);
+        Assertions.assertEquals(TaskChange.Type.INSERT, restored.getType());
+        Assertions.assertEquals(0, restored.getIndex());
+        tasks.undo();
+        tasks.undo();
+        Assertions.assertEquals(List.of(first, second, third, fourth), tasks.getTasks());
+        Assertions.assertEquals(List.of(second), tasks.findByKeyword("second"));
+    }
+
+    @Test
+    void redo_afterUndoingMarkAndAdd_reappliesThem() throws FionaException {
+        TaskList tasks = new TaskList();
+        Task read = new Todo("read book");
+        tasks.add(read);
+        tasks.mark(0);
+
+        Assertions.assertEquals(TaskChange.Type.UNMARK, tasks.undo().get(0).getType());
+        Assertions.assertFalse(read.getIsDone());
+        Assertions.assertEquals(TaskChange.Type.DELETE, tasks.undo().get(0).getType());
+        Assertions.assertEquals(0, tasks.size());
+        Assertions.assertThrows(FionaException.class, tasks::undo);
+
+        tasks.redo();
+        tasks.redo();
+        Assertions.assertEquals(List.of(read), tasks.getTasks());
+        Assertions.assertTrue(read.getIsDone());
+        Assertions.assertThrows(FionaException.class, tasks::redo);
+    }
+
+    @Test
+    void redo_afterNewChange_hasNothingToRedo() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("first"));
+        tasks.undo();
+        tasks.add(new Todo("second"));
+
+        Assertions.assertThrows(FionaException.class, tasks::redo);
+    }
+
+    @Test
+    void undo_moreChangesThanHistoryKeeps_undoesOnlyRecentOnes() throws FionaException {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 150; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        int undone = 0;
+        while (true) {
+            try {
+                tasks.undo();
+                ++undone;
+            } catch (FionaException e) {
+                break;
+            }
+        }
+        Assertions.assertEquals(100, undone);
+        Assertions.assertEquals(50, tasks.size());
+        Assertions.assertEquals("[T][ ] task 49", tasks.getTasks().get(49).toString());
+    }
+
+    @Test
+    void deleteAll_numbersAndRanges_deletesByOriginalPositions() throws FionaException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        List<Task> deleted = tasks.deleteAll(Parser.parse("delete 3,7,9-10").getSelector());
+
+        Assertions.assertEquals(List.of("task 3", "task 7", "task 9", "task 10"),
+                deleted.stream().map(Task::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(6, tasks.size());
+        Assertions.assertTrue(tasks.findByKeyword("task 7").isEmpty());
+        FionaException ex = Assertions.assertThrows(FionaException.class,
+                () -> tasks.deleteAll(Parser.parse("delete 5-7").getSelector()));
+        Assertions.assertTrue(ex.getMessage().contains("7"));
+        Assertions.assertEquals(6, tasks.size(), "Nothing should be deleted if a number is out of range.");
+
+        Assertions.assertEquals(4, tasks.undo().size());
+        Assertions.assertEquals("task 10", tasks.getTasks().get(9).getName());
+        Assertions.assertEquals("task 3", tasks.getTasks().get(2).getName());
+    }
+
+    @Test
+    void markAll_keywordThenDeleteDone_changesOnlyMatchingTasks() throws FionaException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("gym"));
+        tasks.add(new Todo("return BOOK"));
+
+        Assertions.assertEquals(2, tasks.markAll(Parser.parse("mark find book").getSelector()).size());
+        Assertions.assertTrue(tasks.markAll(Parser.parse("mark find book").getSelector()).isEmpty());
+        List<Task> deleted = tasks.deleteAll(Parser.parse("delete done").getSelector());
+
+        Assertions.assertEquals(2, deleted.size());
+        Assertions.assertEquals("gym", tasks.getTasks().get(0).getName());
+    }
+
+    @Test
+    void getTasks_afterChanges_keepsEarlierSnapshot() throws FionaException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("first");
+        tasks.add(first);
+        List<Task> snapshot = tasks.getTasks();
+
+        tasks.add(new Todo("second"));
+        tasks.deleteById(first.getId());
+
+        Assertions.assertEquals(List.of(first), snapshot);
+        Assertions.assertEquals(1, tasks.getTasks().size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Todo("third")));
+    }
+
+    @Test
+    void findByKeyword_concurrentAdds_seesConsistentResults() throws Exception {
+        TaskList tasks = new TaskList();
+        int writes = 2000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < writes; i++) {
+                tasks.add(new Todo("book " + i));
+            }
+        });
+        writer.start();
+        int previous = 0;
+        while (writer.isAlive()) {
+            int found = tasks.findByKeyword("book").size();
+            Assertions.assertTrue(found >= previous, "Tasks found must never disappear.");
+            Assertions.assertTrue(tasks.getTasks().size() >= found);
+            previous = found;
+        }
+        writer.join();
+
+        Assertions.assertEquals(writes, tasks.findByKeyword("book").size());
+        Assertions.assertEquals(writes, tasks.size());
+    }
+}